@@ -13,11 +13,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 
 @SpringBootApplication
 @EnableWebMvc
+@EnableScheduling
 @Import({UserModule.class, AuthModule.class})
 public class CommerceMavenApplication {
 
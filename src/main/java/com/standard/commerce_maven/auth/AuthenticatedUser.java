@@ -0,0 +1,75 @@
+package com.standard.commerce_maven.auth;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.standard.commerce_maven.user.enums.UserType;
+
+/**
+ * Lightweight principal built from verified JWT claims when stateless
+ * principal mode is enabled. Unlike the User entity it carries no password
+ * hash and needs no database lookup.
+ */
+public final class AuthenticatedUser implements AuthenticatedPrincipal {
+    private final UUID id;
+    private final UserType userType;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(UUID id, UserType userType, int tokenVersion) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.userType = Objects.requireNonNull(userType, "userType");
+        this.tokenVersion = tokenVersion;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(userType);
+    }
+
+    @Override
+    public String getName() {
+        return id.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        AuthenticatedUser that = (AuthenticatedUser) o;
+        return tokenVersion == that.tokenVersion &&
+                Objects.equals(id, that.id) &&
+                userType == that.userType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userType, tokenVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+                "id=" + id +
+                ", userType=" + userType +
+                ", tokenVersion=" + tokenVersion +
+                '}';
+    }
+}
@@ -1,7 +1,6 @@
 package com.standard.commerce_maven.auth;
 
 import java.io.IOException;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
@@ -11,10 +10,14 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.standard.commerce_maven.auth.dto.VerifiedToken;
 import com.standard.commerce_maven.auth.service.JwtService;
-import com.standard.commerce_maven.user.entity.User;
-import com.standard.commerce_maven.user.repository.UserRepository;
+import com.standard.commerce_maven.user.dtos.UserPrincipalSnapshot;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.TokenVersionRegistry;
+import com.standard.commerce_maven.user.service.UserPrincipalCache;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,23 +27,35 @@ import jakarta.servlet.http.HttpServletResponse;
  * Custom Spring Security filter to intercept incoming requests and validate
  * JWTs.
  * This filter runs once per request.
+ *
+ * In stateless principal mode the principal is an {@link AuthenticatedUser}
+ * built from the token's role and version claims, with revocation checked
+ * against the {@link TokenVersionRegistry}. Otherwise, and for tokens issued
+ * without those claims, the user comes from the {@link UserPrincipalCache}.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final boolean statelessPrincipal;
 
     /**
      * Constructor for JwtAuthenticationFilter.
      * 
-     * @param jwtService     Service for JWT operations.
-     * @param userRepository Repository to load user details.
+     * @param jwtService           Service for JWT operations.
+     * @param principalCache       Cached user snapshots for authentication.
+     * @param tokenVersionRegistry Current token versions for stateless mode.
+     * @param jwtProperties        JWT settings.
      */
     @Autowired
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserPrincipalCache principalCache,
+            TokenVersionRegistry tokenVersionRegistry, JwtProperties jwtProperties) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.statelessPrincipal = jwtProperties.isStatelessPrincipal();
     }
 
     @Override
@@ -50,7 +65,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization"); // Get Authorization header
         final String jwt;
-        final UUID id;
+        final VerifiedToken token;
 
         // 1. Check if Authorization header exists and starts with "Bearer "
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -61,22 +76,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 2. Extract JWT token
         jwt = authHeader.substring(7); // "Bearer ".length() is 7
 
-        // 3. Extract username from JWT
-        id = this.jwtService.extractId(jwt);
+        // 3. Verify the JWT once; signature, expiry and subject come from this parse
+        try {
+            token = this.jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or expired token: continue unauthenticated
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (token.getClaim(JwtService.PURPOSE_CLAIM, String.class) != null) {
+            // Reset and verification links are not access tokens
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         // 4. Validate JWT and set up SecurityContext
-        if (id != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // If id is present and no authentication is currently set in
-            // SecurityContext
-            User user = this.userRepository.findById(id).orElse(null);
-
-            if (user != null && this.jwtService.isTokenValid(jwt, user)) {
-                // If token is valid, create an authentication object
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null, // credentials are null as we're authenticated by token
-                        user.getAuthorities() // user's authorities/roles
-                );
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // If no authentication is currently set in SecurityContext
+            UsernamePasswordAuthenticationToken authToken = this.statelessPrincipal
+                    ? authenticateFromClaims(token)
+                    : null;
+            if (authToken == null) {
+                authToken = authenticateFromSnapshot(token);
+            }
+
+            if (authToken != null) {
                 // Set details from the request
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request));
@@ -88,4 +112,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 5. Continue with the filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the authentication from claims alone. Returns null for tokens
+     * issued without role/version claims so they fall back to the database.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedToken token) {
+        String role = token.getClaim(JwtService.ROLE_CLAIM, String.class);
+        Integer tokenVersion = token.getClaim(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        if (role == null || tokenVersion == null) {
+            return null;
+        }
+        if (!this.tokenVersionRegistry.isCurrent(token.getUserId(), tokenVersion)) {
+            return null; // Revoked or deleted; the snapshot check rejects it too
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(token.getUserId(), UserType.valueOf(role), tokenVersion);
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null, // credentials are null as we're authenticated by token
+                principal.getAuthorities());
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromSnapshot(VerifiedToken token) {
+        UserPrincipalSnapshot snapshot = this.principalCache.get(token.getUserId());
+        if (snapshot == null || !this.jwtService.isTokenValid(token, snapshot.id(), snapshot.tokenVersion())) {
+            return null;
+        }
+        // If token is valid, create an authentication object
+        AuthenticatedUser principal = new AuthenticatedUser(snapshot.id(), snapshot.userType(),
+                snapshot.tokenVersion());
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null, // credentials are null as we're authenticated by token
+                principal.getAuthorities() // user's authorities/roles
+        );
+    }
 }
\ No newline at end of file
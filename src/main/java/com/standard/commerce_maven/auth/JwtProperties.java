@@ -0,0 +1,68 @@
+package com.standard.commerce_maven.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Binds the {@code application.security.jwt.*} settings.
+ *
+ * With no {@code keys} configured the single {@code secret_key} is used under
+ * the key id {@value #DEFAULT_KEY_ID}. Listing {@code keys} enables rotation:
+ * each key signs from {@code active-from} until {@code retire-at} and keeps
+ * verifying for {@code verification-grace} after retirement.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.security.jwt")
+public class JwtProperties {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    /** Base64 encoded HMAC secret used when no key ring is configured. */
+    private String secretKey;
+
+    /** Token lifetime in milliseconds. */
+    private long expiration;
+
+    private String issuer;
+
+    private String audience;
+
+    /** Key id assumed for tokens issued before tokens carried a kid header. */
+    private String legacyKeyId = DEFAULT_KEY_ID;
+
+    /**
+     * How long a retired key keeps verifying tokens. Defaults to the token
+     * lifetime so every token signed before retirement can still expire
+     * naturally.
+     */
+    private Duration verificationGrace;
+
+    /**
+     * Authenticate from the role and token version claims instead of loading
+     * the user row on every request.
+     */
+    private boolean statelessPrincipal;
+
+    /** How often the token version registry is rebuilt in stateless mode. */
+    private Duration tokenVersionRefresh = Duration.ofSeconds(30);
+
+    /** Rotation schedule; overrides secret_key when non-empty. */
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Key {
+        private String id;
+        /** Base64 encoded HMAC secret, at least 256 bits. */
+        private String secret;
+        /** First instant this key signs new tokens; null means always. */
+        private Instant activeFrom;
+        /** Instant this key stops signing; null means never. */
+        private Instant retireAt;
+    }
+}
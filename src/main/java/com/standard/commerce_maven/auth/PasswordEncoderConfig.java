@@ -0,0 +1,117 @@
+package com.standard.commerce_maven.auth;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import com.standard.commerce_maven.auth.service.OffloadingPasswordEncoder;
+import com.standard.commerce_maven.auth.service.PasswordHashCalibrator;
+import com.standard.commerce_maven.auth.service.PasswordHashingExecutor;
+
+/**
+ * Defines the single, shared PasswordEncoder. Kept out of SecurityConfig so
+ * that AuthService can depend on it without a circular reference.
+ *
+ * New hashes use {@code application.security.password.algorithm} and are
+ * stored with an {@code {id}} prefix; hashes from before the prefix existed
+ * are treated as BCrypt. Any hash that is not on the current algorithm and
+ * work factor reports {@code upgradeEncoding() == true} and is rehashed on
+ * the next successful login.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final String PBKDF2 = "pbkdf2";
+
+    /** Bean name of the encoder that hashes on the calling thread. */
+    public static final String HASHING_ENCODER = "hashingPasswordEncoder";
+
+    @Value("${application.security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    /** Calibration target; zero disables calibration. */
+    @Value("${application.security.password.target-latency:PT0.25S}")
+    private Duration targetLatency;
+
+    /** Fixed strength, or the calibration floor when a target is set. */
+    @Value("${application.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${application.security.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${application.security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${application.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${application.security.password.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+
+    /**
+     * Provides the delegating encoder used everywhere, running on the dedicated
+     * hashing pool.
+     * 
+     * @param hashing  The encoder that does the work.
+     * @param executor The password hashing pool.
+     * @return The shared PasswordEncoder.
+     */
+    @Bean
+    @Primary
+    public OffloadingPasswordEncoder passwordEncoder(
+            @Qualifier(HASHING_ENCODER) PasswordEncoder hashing, PasswordHashingExecutor executor) {
+        return new OffloadingPasswordEncoder(hashing, executor);
+    }
+
+    /**
+     * The configured delegating encoder, hashing on the calling thread. Only
+     * for callers that bound their own parallelism, such as bulk import;
+     * request handling uses {@link #passwordEncoder}.
+     *
+     * @return The delegating encoder.
+     */
+    @Bean(HASHING_ENCODER)
+    public PasswordEncoder hashingPasswordEncoder() {
+        boolean calibrate = !targetLatency.isZero();
+        int bcrypt = bcryptStrength;
+        int argon2 = argon2Iterations;
+        if (calibrate && BCRYPT.equals(algorithm)) {
+            bcrypt = PasswordHashCalibrator.bcryptStrength(targetLatency, bcryptStrength);
+        } else if (calibrate && ARGON2.equals(algorithm)) {
+            argon2 = PasswordHashCalibrator.argon2Iterations(
+                    targetLatency, argon2MemoryKib, argon2Parallelism, argon2Iterations);
+        }
+        log.info("Password hashing: algorithm={}, bcrypt strength={}, argon2 m={}KiB t={} p={}, pbkdf2 iterations={}",
+                algorithm, bcrypt, argon2MemoryKib, argon2, argon2Parallelism, pbkdf2Iterations);
+
+        BCryptPasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(bcrypt);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcryptEncoder,
+                ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, argon2),
+                PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcryptEncoder); // Unprefixed legacy hashes
+        return delegating;
+    }
+}
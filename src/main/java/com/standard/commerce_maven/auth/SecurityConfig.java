@@ -1,7 +1,9 @@
 package com.standard.commerce_maven.auth;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -12,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 // import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
@@ -34,6 +35,7 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity // Enables method-level security (e.g., @PreAuthorize)
+@EnableConfigurationProperties(JwtProperties.class)
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
@@ -53,6 +55,27 @@ public class SecurityConfig {
         this.featureSecurityRules = featureSecurityRules;
     }
 
+    /**
+     * Configures the security filter chain for the actuator endpoints. It is
+     * matched before {@link #securityFilterChain(HttpSecurity)}, whose
+     * catch-all permitAll would otherwise win over any actuator rule.
+     * Health stays public; metrics and the rest need an admin.
+     * 
+     * @param http HttpSecurity to configure.
+     * @return The built SecurityFilterChain.
+     * @throws Exception if an error occurs during configuration.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        statelessJwt(http)
+                .securityMatcher("/actuator/**")
+                .authorizeHttpRequests(c -> c
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasAnyRole("ADMIN", "SUPER_ADMIN"));
+        return http.build();
+    }
+
     /**
      * Configures the security filter chain.
      * 
@@ -62,25 +85,14 @@ public class SecurityConfig {
      */
     @SuppressWarnings("unused")
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        http
-                .csrf(csrf -> csrf.disable())
-                .sessionManagement(session -> session
-                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Use stateless sessions
-                )
+        statelessJwt(http)
                 .authorizeHttpRequests(c -> {
                     c.requestMatchers("/**").permitAll()
                     .requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**","/public/**", "/login", "/register").permitAll()
                     .requestMatchers("/h2-console/**").permitAll();
                     this.featureSecurityRules.forEach(r -> r.configure(c));
-                })
-                .addFilterBefore(this.jwtAuthFilter,
-                        UsernamePasswordAuthenticationFilter.class)
-                .exceptionHandling(c -> {
-                    c.authenticationEntryPoint(
-                            new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
-                    c.accessDeniedHandler(((request, response, accessDeniedException) -> response
-                            .setStatus(HttpStatus.FORBIDDEN.value())));
                 });
 
         // For H2 console to work with Spring Security (since it uses iframes)
@@ -90,26 +102,37 @@ public class SecurityConfig {
     }
 
     /**
-     * Provides a BCryptPasswordEncoder bean for password hashing.
-     * 
-     * @return A BCryptPasswordEncoder instance.
+     * Settings shared by both chains: no CSRF, stateless sessions, the JWT
+     * filter, and bare 401/403 responses.
      */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private HttpSecurity statelessJwt(HttpSecurity http) throws Exception {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Use stateless sessions
+                )
+                .addFilterBefore(this.jwtAuthFilter,
+                        UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(c -> {
+                    c.authenticationEntryPoint(
+                            new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
+                    c.accessDeniedHandler(((request, response, accessDeniedException) -> response
+                            .setStatus(HttpStatus.FORBIDDEN.value())));
+                });
     }
 
     /**
      * Configures the AuthenticationProvider to use UserDetailsService and
      * PasswordEncoder.
      * 
+     * @param passwordEncoder The shared encoder from PasswordEncoderConfig.
      * @return A DaoAuthenticationProvider instance.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(authService); // Set our custom UserDetailsService
-        authProvider.setPasswordEncoder(passwordEncoder()); // Set our password encoder
+        authProvider.setPasswordEncoder(passwordEncoder); // Set our password encoder
         return authProvider;
     }
 
@@ -9,7 +9,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.standard.commerce_maven.auth.dto.AuthRequest;
 import com.standard.commerce_maven.auth.dto.AuthResponse;
 import com.standard.commerce_maven.auth.dto.ConfirmPasswordResetRequest;
@@ -18,10 +20,17 @@ import com.standard.commerce_maven.auth.dto.UpdateEmailRequest;
 import com.standard.commerce_maven.auth.dto.UpdatePasswordRequest;
 import com.standard.commerce_maven.auth.service.AuthService;
 import com.standard.commerce_maven.auth.service.JwtService;
+import com.standard.commerce_maven.common.CapacityExceededException;
+import com.standard.commerce_maven.common.ConditionalRequests;
+import com.standard.commerce_maven.common.GlobalExceptionHandler;
+import com.standard.commerce_maven.common.JsonEnvelope;
 import com.standard.commerce_maven.common.ResponseDto;
 import com.standard.commerce_maven.user.dtos.UserDto;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
 import com.standard.commerce_maven.user.entity.User;
 import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserJsonCache;
 import com.standard.commerce_maven.user.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,12 +52,17 @@ public class AuthController {
     private final AuthService authService;
     private final JwtService jwtService;
     private final UserService userService; // To get UserDetails after authentication
+    private final UserJsonCache userJsonCache;
+    private final JsonEnvelope userFetched;
 
     @Autowired
-    public AuthController(AuthService authService, JwtService jwtService, UserService userService) {
+    public AuthController(AuthService authService, JwtService jwtService, UserService userService,
+            UserJsonCache userJsonCache, ObjectMapper objectMapper) {
         this.authService = authService;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.userJsonCache = userJsonCache;
+        this.userFetched = JsonEnvelope.of(objectMapper, 200, "User fetched successfully");
     }
 
     /**
@@ -84,6 +98,8 @@ public class AuthController {
                 response.setMessage("Invalid credentials");
                 response.setError("Unauthorized");
             }
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -109,8 +125,8 @@ public class AuthController {
         @ApiResponse(responseCode = "500", description = "Internal server error - Registration failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
     })
     @PostMapping("/register")
-    public ResponseEntity<ResponseDto<User>> registerUser(@Valid @RequestBody UserDto user) {
-        ResponseDto<User> response = new ResponseDto<>();
+    public ResponseEntity<ResponseDto<UserSummary>> registerUser(@Valid @RequestBody UserDto user) {
+        ResponseDto<UserSummary> response = new ResponseDto<>();
         try {
             User userEntity = new User();
             userEntity.setUsername(user.getUsername());
@@ -119,10 +135,12 @@ public class AuthController {
             UserType userType = UserType.USER;
             userEntity.setUserType(userType);
             User createdUser = this.userService.createUser(userEntity);
-            response.setData(createdUser);
+            response.setData(UserSummary.from(createdUser));
             response.setStatus(201);
             response.setMessage("User registered successfully");
             response.setError(null);
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -169,24 +187,34 @@ public class AuthController {
     /**
      * Example: Endpoint to get the current authenticated user's details.
      * This would typically be used to retrieve user information after login.
+     * Carries an ETag and Last-Modified; while they still hold, polling with
+     * If-None-Match/If-Modified-Since gets a 304 without the user being read
+     * or serialized. Otherwise the user's cached JSON is written inside a
+     * pre-serialized envelope.
      * 
+     * @param request For the conditional request headers.
      * @return ResponseEntity with the current user's details.
      */
     @GetMapping("/me")
-    public ResponseEntity<ResponseDto<User>> getCurrentUser() {
-        ResponseDto<User> response = new ResponseDto<>();
-        User user = this.authService.getCurrentUser();
-        if (user != null) {
-            response.setData(user);
-            response.setStatus(200);
-            response.setMessage("User fetched successfully");
-            response.setError(null);
-        } else {
-            response.setData(null);
-            response.setStatus(401);
-            response.setMessage("Unauthorized");
-            response.setError("Unauthorized");
+    public ResponseEntity<?> getCurrentUser(WebRequest request) {
+        ResponseDto<UserSummary> response = new ResponseDto<>();
+        UserVersion current = this.authService.getCurrentUserVersion();
+        if (current != null) {
+            ResponseEntity<?> notModified = ConditionalRequests.checkNotModified(request, current.eTag(),
+                    current.lastModified());
+            if (notModified != null) {
+                return notModified;
+            }
+            UserJsonCache.Entry user = this.userJsonCache.get(current, this.authService::getCurrentUserSummary);
+            if (user != null) {
+                return ConditionalRequests.ok(user.version().eTag(), user.version().lastModified())
+                        .body(this.userFetched.wrap(user.json()));
+            }
         }
+        response.setData(null);
+        response.setStatus(401);
+        response.setMessage("Unauthorized");
+        response.setError("Unauthorized");
         return ResponseEntity.ok(response);
     }
 
@@ -216,6 +244,8 @@ public class AuthController {
             response.setStatus(200);
             response.setMessage("Password updated successfully");
             response.setError(null);
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -280,6 +310,8 @@ public class AuthController {
             response.setStatus(200);
             response.setMessage("Password reset successfully.");
             response.setError(null);
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -0,0 +1,87 @@
+package com.standard.commerce_maven.auth.dto;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable result of parsing and verifying a JWT exactly once.
+ * Holds everything callers used to re-parse the token for: the subject (user
+ * ID), expiry, issue time and any custom claims.
+ */
+public final class VerifiedToken {
+    private final UUID userId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    public VerifiedToken(UUID userId, Instant issuedAt, Instant expiresAt, Map<String, Object> claims) {
+        this.userId = Objects.requireNonNull(userId, "userId");
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.claims = claims != null ? Collections.unmodifiableMap(claims) : Collections.emptyMap();
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    /**
+     * Returns a single custom claim, or null if the token does not carry it.
+     *
+     * @param name The claim name.
+     * @param type The expected claim type.
+     * @param <T>  Type of the claim.
+     * @return The claim value, or null.
+     */
+    public <T> T getClaim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        VerifiedToken that = (VerifiedToken) o;
+        return Objects.equals(userId, that.userId) &&
+                Objects.equals(issuedAt, that.issuedAt) &&
+                Objects.equals(expiresAt, that.expiresAt) &&
+                Objects.equals(claims, that.claims);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, issuedAt, expiresAt, claims);
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "userId=" + userId +
+                ", issuedAt=" + issuedAt +
+                ", expiresAt=" + expiresAt +
+                ", claims=" + claims.keySet() + // Avoid logging claim values
+                '}';
+    }
+}
@@ -1,37 +1,55 @@
 package com.standard.commerce_maven.auth.service;
 
-import java.time.LocalDateTime;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
-import com.standard.commerce_maven.mailing.dto.EmailRequest;
-import com.standard.commerce_maven.mailing.service.EmailService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.standard.commerce_maven.auth.AuthenticatedUser;
+import com.standard.commerce_maven.auth.dto.VerifiedToken;
+import com.standard.commerce_maven.common.CapacityExceededException;
+import com.standard.commerce_maven.mailing.service.MailOutboxService;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
 import com.standard.commerce_maven.user.entity.User;
 import com.standard.commerce_maven.user.repository.UserRepository;
+import com.standard.commerce_maven.user.service.TokenVersionRegistry;
+import com.standard.commerce_maven.user.service.UserCountEstimator;
+import com.standard.commerce_maven.user.service.UserPrincipalCache;
+import com.standard.commerce_maven.user.service.UserSearchService;
 
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class AuthService implements UserDetailsService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final EmailService mailService;
+    private final MailOutboxService mailOutbox;
     private final JwtService jwtService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserPrincipalCache principalCache;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final UserCountEstimator countEstimator;
+    private final UserSearchService searchService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${application.frontend.url}")
     private String frontendUrl;
@@ -39,15 +57,25 @@ public class AuthService implements UserDetailsService {
     @Autowired
     public AuthService(
             UserRepository userRepository,
-            EmailService mailService,
-            JwtService jwtService) {
-        this.mailService = mailService;
+            MailOutboxService mailOutbox,
+            JwtService jwtService,
+            TokenVersionRegistry tokenVersionRegistry,
+            UserPrincipalCache principalCache,
+            OffloadingPasswordEncoder passwordEncoder,
+            UserCountEstimator countEstimator,
+            UserSearchService searchService,
+            PlatformTransactionManager transactionManager) {
+        this.mailOutbox = mailOutbox;
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.principalCache = principalCache;
+        this.passwordEncoder = passwordEncoder;
+        this.countEstimator = countEstimator;
+        this.searchService = searchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
     /**
      * Implements Spring Security's UserDetailsService to load user details by
      * username.
@@ -65,23 +93,93 @@ public class AuthService implements UserDetailsService {
         return user; // Our User entity already implements UserDetails
     }
 
+    /**
+     * Returns the authenticated user. The JWT filter only keeps a lightweight
+     * principal, so the entity is loaded here once when it is needed.
+     *
+     * @return The current User, or null if the request is not authenticated.
+     */
     public User getCurrentUser() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
-        var userId = (UUID) authentication.getPrincipal();
-        return this.userRepository.findById(userId).orElse(null);
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return user;
+        }
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return this.userRepository.findById(authenticatedUser.getId()).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the public view of the authenticated user, read with a
+     * projection query rather than by loading the entity.
+     *
+     * @return The current user's summary, or null if the request is not
+     *         authenticated.
+     */
+    public UserSummary getCurrentUserSummary() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return UserSummary.from(user);
+        }
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return this.userRepository.findSummaryById(authenticatedUser.getId()).orElse(null);
+        }
+        return null;
     }
 
     /**
-     * Verifies the user's email using a token.
+     * Returns what conditional requests for the authenticated user are
+     * evaluated against, read without the rest of the row.
+     *
+     * @return The current user's ETag and Last-Modified, or null if the
+     *         request is not authenticated.
+     */
+    public UserVersion getCurrentUserVersion() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return UserVersion.of(user);
+        }
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return this.userRepository.findVersionById(authenticatedUser.getId()).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Verifies the user's email using a verification link token.
+     * Only accepted once, for the address it was sent to, and at the user's
+     * current token version.
      * 
-     * @param token The JWT token containing the user's ID.
-     * @throws Exception if the user is not found or any other error occurs.
+     * @param token The verification JWT from the link.
+     * @throws Exception if the token is not a verification token, the user is
+     *                   not found, the link was already used or revoked, or
+     *                   any other error occurs.
      */
     public void verifyEmail(String token) throws Exception {
-        UUID userId = this.jwtService.extractId(token);
-        User userDetails = this.userRepository.findById(userId).orElseThrow(() -> new Exception("User not found"));
-        userDetails.setEmailVerifiedAt(LocalDateTime.now());
-        this.userRepository.save(userDetails);
+        VerifiedToken verified = this.jwtService.verify(token);
+        Integer tokenVersion = verified.getClaim(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        String email = verified.getClaim(JwtService.EMAIL_CLAIM, String.class);
+        if (!JwtService.PURPOSE_VERIFY.equals(verified.getClaim(JwtService.PURPOSE_CLAIM, String.class))
+                || tokenVersion == null || email == null) {
+            throw new Exception("Not a verification link");
+        }
+        if (this.userRepository.markEmailVerifiedIfPending(verified.getUserId(), email, tokenVersion) == 0) {
+            throw new Exception("User not found or verification link no longer valid");
+        }
+        this.principalCache.invalidate(verified.getUserId());
     }
 
     /**
@@ -100,24 +198,36 @@ public class AuthService implements UserDetailsService {
 
     /**
      * Creates a new user in the database.
-     * The password will be encoded before saving.
+     * The password is encoded before the transaction opens, so hashing never
+     * holds a database connection.
      * 
      * @param user The User object to be created.
      * @return The saved User object with its generated ID.
      */
-    @Transactional
     public User createUser(User user) {
-        // Encode the password before saving
         user.setPassword(this.passwordEncoder.encode(user.getPassword()));
         // emailVerified defaults to false in User entity constructor
-        return this.userRepository.save(user);
+        return this.transactionTemplate.execute(status -> {
+            User saved = this.userRepository.save(user);
+            this.countEstimator.adjust(1);
+            this.searchService.indexed(saved);
+            return saved;
+        });
     }
 
-    public Optional<User> updatePassword(UUID userId, String newPassword) {
-        return this.userRepository.findById(userId).map(user -> {
-            user.setPassword(this.passwordEncoder.encode(newPassword));
-            return this.userRepository.save(user);
-        });
+    /**
+     * Sets a new password and revokes the user's tokens in a single UPDATE.
+     *
+     * @return True if the user exists.
+     */
+    public boolean updatePassword(UUID userId, String newPassword) {
+        String passwordHash = this.passwordEncoder.encode(newPassword);
+        if (this.userRepository.updatePassword(userId, passwordHash) == 0) {
+            return false;
+        }
+        this.tokenVersionRegistry.recordRevoked(userId);
+        this.principalCache.invalidate(userId);
+        return true;
     }
 
     /**
@@ -129,10 +239,9 @@ public class AuthService implements UserDetailsService {
      *         found.
      */
     public void verifyEmail(UUID userId) {
-        this.userRepository.findById(userId).ifPresent(user -> {
-            user.setEmailVerifiedAt(LocalDateTime.now()); // Set emailVerified to true
-            this.userRepository.save(user); // Save the updated user
-        });
+        if (this.userRepository.markEmailVerified(userId) > 0) {
+            this.principalCache.invalidate(userId);
+        }
     }
 
     public User validateUser(String email, String password) throws Exception {
@@ -142,41 +251,76 @@ public class AuthService implements UserDetailsService {
         if (!passwordEncoder.matches(password, user.getPassword())) {
             throw new Exception("Invalid password");
         }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            rehashInBackground(user.getId(), user.getPassword(), password);
+        }
         return user;
     }
 
+    /**
+     * Replaces an outdated hash (old algorithm or work factor) with one using
+     * the current settings. Runs after the login response is on its way and
+     * only writes if the stored hash has not changed in the meantime.
+     */
+    private void rehashInBackground(UUID userId, String oldHash, String rawPassword) {
+        this.passwordEncoder.encodeInBackground(rawPassword, newHash -> {
+            try {
+                this.userRepository.replacePasswordHash(userId, oldHash, newHash);
+            } catch (Exception e) {
+                log.warn("Could not upgrade password hash for user {}", userId, e);
+            }
+        });
+    }
+
+    @Transactional
     public void sendResetPasswordEmail(String email, String resetToken) throws Exception {
         User user = this.userRepository.findByEmail(email)
                 .orElseThrow(() -> new Exception("User not found"));
 
         String resetPasswordLink = frontendUrl + "/reset-password?token=" + resetToken;
 
-        this.mailService.sendEmail(new EmailRequest(List.of(user.getEmail()), "Reset Password",
-                "Please click the link to reset your password: " + resetPasswordLink));
+        this.mailOutbox.enqueueTemplated("password-reset", LocaleContextHolder.getLocale(),
+                Map.of("link", resetPasswordLink), List.of(user.getEmail()));
     }
 
+    @Transactional
     public void requestPasswordReset(String email) throws Exception {
         User user = this.userRepository.findByEmail(email)
                 .orElseThrow(() -> new Exception("User not found"));
 
-        String resetToken = this.jwtService.generateToken(user);
+        String resetToken = this.jwtService.generateResetToken(user);
         sendResetPasswordEmail(user.getEmail(), resetToken);
     }
 
     public void resetPassword(String token, String newPassword) throws Exception {
         try {
-            UUID userId = this.jwtService.extractId(token);
-            // In a real application, you might want to check for token expiry here,
-            // but JWT libraries often handle this automatically during verification.
-            this.userRepository.findById(userId).map(user -> {
-                user.setPassword(this.passwordEncoder.encode(newPassword));
-                return this.userRepository.save(user);
-            });
+            // verify() checks the signature and expiry in the same single parse
+            VerifiedToken verified = this.jwtService.verify(token);
+            UUID userId = verified.getUserId();
+            Integer tokenVersion = verified.getClaim(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+            if (!JwtService.PURPOSE_RESET.equals(verified.getClaim(JwtService.PURPOSE_CLAIM, String.class))
+                    || tokenVersion == null) {
+                throw new Exception("Not a password reset token");
+            }
+            String passwordHash = this.passwordEncoder.encode(newPassword);
+            // Only applies at the version the token was issued for, and bumps it: the link works once
+            if (this.userRepository.updatePasswordIfTokenVersion(userId, passwordHash, tokenVersion) == 0) {
+                throw new Exception("Reset token already used or revoked");
+            }
+            this.tokenVersionRegistry.recordRevoked(userId);
+            this.principalCache.invalidate(userId);
+        } catch (CapacityExceededException e) {
+            throw e; // Surface as 503, not as a bad token
         } catch (Exception e) {
             throw new Exception("Invalid or expired reset password token: " + Arrays.toString(e.getStackTrace()));
         }
     }
 
+    /**
+     * Changes a password after checking the old one. Both hashing steps run
+     * outside any transaction; the UPDATE only applies if the user row is
+     * still at the version that was checked.
+     */
     public void changePassword(UUID userId, String oldPassword, String newPassword) throws Exception {
         try {
             User user = this.userRepository.findById(userId)
@@ -185,39 +329,51 @@ public class AuthService implements UserDetailsService {
             if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
                 throw new Exception("Invalid old password");
             }
-            user.setPassword(passwordEncoder.encode(newPassword));
-            this.userRepository.save(user);
-        } catch (NotFoundException e) {
+            String passwordHash = passwordEncoder.encode(newPassword);
+            if (this.userRepository.updatePasswordIfVersion(userId, passwordHash, user.getVersion()) == 0) {
+                throw new Exception("Password changed while the old one was being checked");
+            }
+            this.tokenVersionRegistry.recordRevoked(userId);
+            this.principalCache.invalidate(userId);
+        } catch (NotFoundException | CapacityExceededException e) {
             throw e; // Re-throw NotFoundException
         } catch (Exception e) {
             throw new Exception("Invalid or incorrect old password: " + Arrays.toString(e.getStackTrace()));
         }
     }
 
+    @Transactional
     public void updateEmail(UUID userId, String newEmail) throws Exception {
         User user = this.userRepository.findById(userId)
                 .orElseThrow(() -> new Exception("User not found for email update"));
 
+        // Also resets the verification status
+        if (this.userRepository.updateEmail(userId, newEmail, user.getVersion()) == 0) {
+            throw new Exception("User changed during the email update, try again");
+        }
+        // The update detached user; align the copy for the index and the token
         user.setEmail(newEmail);
-        user.setEmailVerifiedAt(null); // Reset email verification status
-        this.userRepository.save(user);
+        user.setEmailVerifiedAt(null);
+        this.principalCache.invalidate(userId);
+        this.searchService.indexed(user);
 
         // Optionally send a verification email after updating the email
-        String verificationToken = this.jwtService.generateToken(user);
+        String verificationToken = this.jwtService.generateVerificationToken(user, newEmail);
         String verificationLink = frontendUrl + "/verify-email?token=" + verificationToken;
 
-        this.mailService.sendEmail(new EmailRequest(List.of(newEmail), "Verify New Email",
-                "Please click the link to verify your new email: " + verificationLink));
+        this.mailOutbox.enqueueTemplated("email-verification", LocaleContextHolder.getLocale(),
+                Map.of("link", verificationLink), List.of(newEmail));
     }
 
+    @Transactional
     public void sendEmailVerification(UUID userId, String newEmail) throws Exception {
         User user = this.userRepository.findById(userId)
                 .orElseThrow(() -> new Exception("User not found for email verification"));
 
-        String verificationToken = this.jwtService.generateToken(user);
+        String verificationToken = this.jwtService.generateVerificationToken(user, newEmail);
         String verificationLink = frontendUrl + "/verify-email?token=" + verificationToken;
 
-        this.mailService.sendEmail(new EmailRequest(List.of(newEmail), "Verify New Email",
-                "Please click the link to verify your new email: " + verificationLink));
+        this.mailOutbox.enqueueTemplated("email-verification", LocaleContextHolder.getLocale(),
+                Map.of("link", verificationLink), List.of(newEmail));
     }
 }
@@ -0,0 +1,181 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.standard.commerce_maven.auth.JwtProperties;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Holds every configured JWT signing key, decoded once at startup.
+ *
+ * Signing uses the newest key whose schedule is active. Verification goes
+ * through a single pre-built parser whose key locator resolves the token's
+ * {@code kid} header with one map lookup, so a rotation never needs
+ * trial-and-error verification against several keys.
+ */
+@Component
+public class JwtKeyRing {
+
+    private final Map<String, SigningKey> keysById;
+    private final List<SigningKey> newestFirst;
+    private final String legacyKeyId;
+    private final JwtParser parser;
+    private final Clock clock;
+
+    @Autowired
+    public JwtKeyRing(JwtProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public JwtKeyRing(JwtProperties properties, Clock clock) {
+        this.clock = clock;
+        this.legacyKeyId = properties.getLegacyKeyId();
+        Duration grace = properties.getVerificationGrace() != null
+                ? properties.getVerificationGrace()
+                : Duration.ofMillis(properties.getExpiration());
+
+        List<JwtProperties.Key> configured = properties.getKeys();
+        if (configured == null || configured.isEmpty()) {
+            JwtProperties.Key legacy = new JwtProperties.Key();
+            legacy.setId(JwtProperties.DEFAULT_KEY_ID);
+            legacy.setSecret(properties.getSecretKey());
+            configured = List.of(legacy);
+        }
+
+        Map<String, SigningKey> byId = new HashMap<>();
+        for (JwtProperties.Key key : configured) {
+            if (key.getId() == null || key.getId().isBlank()) {
+                throw new IllegalStateException("Every JWT signing key needs an id");
+            }
+            if (key.getSecret() == null || key.getSecret().isBlank()) {
+                throw new IllegalStateException("JWT signing key '" + key.getId() + "' has no secret");
+            }
+            SigningKey signingKey = new SigningKey(
+                    key.getId(),
+                    Keys.hmacShaKeyFor(Decoders.BASE64.decode(key.getSecret())),
+                    key.getActiveFrom(),
+                    key.getRetireAt(),
+                    key.getRetireAt() != null ? key.getRetireAt().plus(grace) : null);
+            if (byId.putIfAbsent(signingKey.getId(), signingKey) != null) {
+                throw new IllegalStateException("Duplicate JWT signing key id: " + key.getId());
+            }
+        }
+        this.keysById = Map.copyOf(byId);
+
+        List<SigningKey> ordered = new ArrayList<>(byId.values());
+        ordered.sort(Comparator.comparing(
+                (SigningKey k) -> k.getActiveFrom() != null ? k.getActiveFrom() : Instant.MIN).reversed());
+        this.newestFirst = List.copyOf(ordered);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .clock(() -> Date.from(this.clock.instant()))
+                .build();
+    }
+
+    /**
+     * Returns the key new tokens should be signed with right now.
+     *
+     * @return The active signing key.
+     * @throws IllegalStateException if the schedule leaves no key active.
+     */
+    public SigningKey currentSigningKey() {
+        Instant now = this.clock.instant();
+        for (SigningKey key : this.newestFirst) {
+            if (key.canSign(now)) {
+                return key;
+            }
+        }
+        throw new IllegalStateException("No JWT signing key is active at " + now);
+    }
+
+    /**
+     * Returns the shared parser; it is thread-safe and resolves keys by kid.
+     *
+     * @return The pre-built JwtParser.
+     */
+    public JwtParser parser() {
+        return this.parser;
+    }
+
+    private SecretKey verificationKey(String keyId) {
+        SigningKey key = this.keysById.get(keyId != null ? keyId : this.legacyKeyId);
+        if (key == null) {
+            throw new JwtException("Unknown JWT signing key: " + keyId);
+        }
+        if (!key.canVerify(this.clock.instant())) {
+            throw new JwtException("JWT signing key has been retired: " + keyId);
+        }
+        return key.getKey();
+    }
+
+    /**
+     * A decoded key together with its rotation schedule.
+     */
+    public static final class SigningKey {
+        private final String id;
+        private final SecretKey key;
+        private final Instant activeFrom;
+        private final Instant retireAt;
+        private final Instant verifyUntil;
+
+        SigningKey(String id, SecretKey key, Instant activeFrom, Instant retireAt, Instant verifyUntil) {
+            this.id = id;
+            this.key = key;
+            this.activeFrom = activeFrom;
+            this.retireAt = retireAt;
+            this.verifyUntil = verifyUntil;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+
+        public Instant getActiveFrom() {
+            return activeFrom;
+        }
+
+        public Instant getRetireAt() {
+            return retireAt;
+        }
+
+        boolean canSign(Instant now) {
+            return (activeFrom == null || !now.isBefore(activeFrom))
+                    && (retireAt == null || now.isBefore(retireAt));
+        }
+
+        boolean canVerify(Instant now) {
+            return verifyUntil == null || now.isBefore(verifyUntil);
+        }
+    }
+}
@@ -1,40 +1,86 @@
 // JwtService.java - Service for JWT operations
 package com.standard.commerce_maven.auth.service;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
-import javax.crypto.SecretKey;
-
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.standard.commerce_maven.auth.JwtProperties;
+import com.standard.commerce_maven.auth.dto.VerifiedToken;
 import com.standard.commerce_maven.user.entity.User;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 
 /**
  * Service for handling JWT (JSON Web Token) related operations:
  * - Generating JWTs
  * - Extracting claims from JWTs
  * - Validating JWTs
+ *
+ * Keys and the parser come from the {@link JwtKeyRing}, which decodes them once
+ * at startup. Tokens carry the signing key's id in their {@code kid} header.
+ * Callers that need more than one piece of a token should use
+ * {@link #verify(String)} so the signature is checked and the claims are
+ * parsed a single time.
  */
 @Service
 public class JwtService {
 
-    // Retrieve JWT secret key from application.properties
-    @Value("${application.security.jwt.secret_key}")
-    private String secretKey;
+    /** Claim holding the user's {@link com.standard.commerce_maven.user.enums.UserType}. */
+    public static final String ROLE_CLAIM = "role";
+    /** Claim holding the user's token version at issue time. */
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    /** Claim marking a single-purpose link token; access tokens have none. */
+    public static final String PURPOSE_CLAIM = "purpose";
+    /** {@link #PURPOSE_CLAIM} value of password reset links. */
+    public static final String PURPOSE_RESET = "reset";
+    /** {@link #PURPOSE_CLAIM} value of email verification links. */
+    public static final String PURPOSE_VERIFY = "verify";
+    /** Claim holding the address a verification link was sent to. */
+    public static final String EMAIL_CLAIM = "email";
+
+    private final JwtKeyRing keyRing;
+    private final long jwtExpiration; // in milliseconds
 
-    // Retrieve JWT expiration time from application.properties
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration; // in milliseconds
+    /**
+     * Constructor for JwtService.
+     *
+     * @param keyRing    The configured signing keys.
+     * @param properties JWT settings from application.properties.
+     */
+    public JwtService(JwtKeyRing keyRing, JwtProperties properties) {
+        this.keyRing = keyRing;
+        this.jwtExpiration = properties.getExpiration();
+    }
+
+    /**
+     * Parses and verifies a JWT once, returning everything the callers need.
+     * Expired tokens and bad signatures are rejected by the parser.
+     *
+     * @param token The JWT.
+     * @return The verified token.
+     * @throws JwtException             if the token is invalid or expired.
+     * @throws IllegalArgumentException if the subject is not a UUID.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Map<String, Object> customClaims = new HashMap<>(claims);
+        customClaims.remove(Claims.SUBJECT);
+        customClaims.remove(Claims.ISSUED_AT);
+        customClaims.remove(Claims.EXPIRATION);
+        return new VerifiedToken(
+                UUID.fromString(claims.getSubject()),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                customClaims);
+    }
 
     /**
      * Extracts the id from a JWT.
@@ -43,7 +89,7 @@ public class JwtService {
      * @return The id (subject) from the token.
      */
     public UUID extractId(String token) {
-        return UUID.fromString(extractClaim(token, Claims::getSubject));
+        return verify(token).getUserId();
     }
 
     /**
@@ -77,16 +123,44 @@ public class JwtService {
      * @return The generated JWT string.
      */
     public String generateToken(Map<String, Object> extraClaims, User user) {
+        JwtKeyRing.SigningKey signingKey = this.keyRing.currentSigningKey();
         return Jwts
                 .builder()
+                .header().keyId(signingKey.getId()).and() // Lets verification find the key directly
                 .claims(extraClaims) // Add any extra claims
+                .claim(ROLE_CLAIM, user.getUserType().name()) // Lets stateless mode skip the user lookup
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion()) // Checked against the revocation registry
                 .subject(user.getId().toString()) // Set subject (user ID)
                 .issuedAt(new Date(System.currentTimeMillis())) // Set issuance time
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration)) // Set expiration time
-                .signWith(getSignInKey()) // Sign the token with the secret key
+                .signWith(signingKey.getKey()) // Sign the token with the active key
                 .compact();
     }
 
+    /**
+     * Generates a password reset link token. It is not accepted as a bearer
+     * token, and only resets at the token version it was issued for.
+     *
+     * @param user The User requesting the reset.
+     * @return The generated JWT string.
+     */
+    public String generateResetToken(User user) {
+        return generateToken(Map.of(PURPOSE_CLAIM, PURPOSE_RESET), user);
+    }
+
+    /**
+     * Generates an email verification link token for the address it is sent
+     * to. It is not accepted as a bearer token, and only verifies that
+     * address while it is still the user's unverified email.
+     *
+     * @param user  The User whose email is verified.
+     * @param email The address the link is sent to.
+     * @return The generated JWT string.
+     */
+    public String generateVerificationToken(User user, String email) {
+        return generateToken(Map.of(PURPOSE_CLAIM, PURPOSE_VERIFY, EMAIL_CLAIM, email), user);
+    }
+
     /**
      * Validates a JWT against a User object.
      * 
@@ -95,28 +169,40 @@ public class JwtService {
      * @return True if the token is valid, false otherwise.
      */
     public boolean isTokenValid(String token, User user) {
-        final UUID id = extractId(token);
-        return (id.equals(user.getId()) && !isTokenExpired(token));
+        try {
+            return isTokenValid(verify(token), user);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
     /**
-     * Checks if a JWT is expired.
-     * 
-     * @param token The JWT to check.
-     * @return True if the token is expired, false otherwise.
+     * Validates an already verified token against a User object without parsing
+     * it again.
+     *
+     * @param token The verified token.
+     * @param user  The User object to compare against.
+     * @return True if the token belongs to the user and has not expired.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(VerifiedToken token, User user) {
+        return isTokenValid(token, user.getId(), user.getTokenVersion());
     }
 
     /**
-     * Extracts the expiration date from a JWT.
-     * 
-     * @param token The JWT.
-     * @return The expiration Date.
+     * Validates an already verified token against a user's ID and current token
+     * version.
+     *
+     * @param token        The verified token.
+     * @param userId       The user's ID.
+     * @param tokenVersion The user's current token version.
+     * @return True if the token belongs to the user, has not expired and has
+     *         not been revoked.
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(VerifiedToken token, UUID userId, int tokenVersion) {
+        Integer issuedVersion = token.getClaim(TOKEN_VERSION_CLAIM, Integer.class);
+        return token.getUserId().equals(userId)
+                && !token.isExpired(Instant.now())
+                && (issuedVersion == null || issuedVersion == tokenVersion);
     }
 
     /**
@@ -126,21 +212,8 @@ public class JwtService {
      * @return All claims as a Claims object.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey()) // Verify token with the secret key
-                .build()
+        return this.keyRing.parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
-
-    /**
-     * Decodes the secret key from Base64 and returns it as a SecretKey.
-     * 
-     * @return The SecretKey used for signing.
-     */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.util.function.Consumer;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Decorates a {@link PasswordEncoder} so that encode and matches run on the
+ * {@link PasswordHashingExecutor} instead of the calling request thread.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.executor.execute("encode", () -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.executor.execute("matches", () -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hashes a password in the background and hands the result to a callback.
+     * Used for rehash-on-login, so it is skipped when the pool is busy; the
+     * next login simply tries again.
+     *
+     * @param rawPassword The plain-text password.
+     * @param onEncoded   Receives the new hash on the hashing thread.
+     * @return True if the work was queued.
+     */
+    public boolean encodeInBackground(CharSequence rawPassword, Consumer<String> onEncoded) {
+        return this.executor.tryExecuteInBackground("rehash",
+                () -> onEncoded.accept(this.delegate.encode(rawPassword)));
+    }
+}
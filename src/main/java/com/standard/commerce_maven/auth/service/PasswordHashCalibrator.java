@@ -0,0 +1,82 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Picks hashing work factors at startup so that a single hash takes roughly a
+ * target latency on the current hardware.
+ *
+ * Only algorithms that store their parameters inside the hash are calibrated
+ * (BCrypt, Argon2). PBKDF2 hashes do not carry an iteration count, so its
+ * iterations stay a fixed setting.
+ */
+public final class PasswordHashCalibrator {
+
+    /** BCrypt's own upper bound is 31; anything past 16 takes seconds. */
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MAX_ARGON2_ITERATIONS = 10;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-Password-1";
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * Returns the highest BCrypt strength, starting at {@code minStrength},
+     * whose hash time stays within the target. Each extra round doubles the
+     * cost, so it stops as soon as the next one would overshoot.
+     *
+     * @param target      Desired time per hash.
+     * @param minStrength Floor that is used even when it is slower than the
+     *                    target.
+     * @return The calibrated log rounds.
+     */
+    public static int bcryptStrength(Duration target, int minStrength) {
+        int strength = minStrength;
+        long nanos = measure(new BCryptPasswordEncoder(strength));
+        while (strength < MAX_BCRYPT_STRENGTH && nanos * 2 <= target.toNanos()) {
+            strength++;
+            nanos = measure(new BCryptPasswordEncoder(strength));
+        }
+        return strength;
+    }
+
+    /**
+     * Returns the Argon2 iteration count that fits the target at a fixed memory
+     * cost. Argon2 time grows linearly with iterations.
+     *
+     * @param target        Desired time per hash.
+     * @param memoryKib     Memory cost in KiB.
+     * @param parallelism   Lanes.
+     * @param minIterations Floor for the iteration count.
+     * @return The calibrated iteration count.
+     */
+    public static int argon2Iterations(Duration target, int memoryKib, int parallelism, int minIterations) {
+        IntFunction<PasswordEncoder> encoder = iterations -> new Argon2PasswordEncoder(
+                16, 32, parallelism, memoryKib, iterations);
+        long perIteration = measure(encoder.apply(minIterations)) / minIterations;
+        long fits = perIteration > 0 ? target.toNanos() / perIteration : MAX_ARGON2_ITERATIONS;
+        return (int) Math.max(minIterations, Math.min(MAX_ARGON2_ITERATIONS, fits));
+    }
+
+    /**
+     * Median time of a few encodes, after one warm-up call.
+     */
+    static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
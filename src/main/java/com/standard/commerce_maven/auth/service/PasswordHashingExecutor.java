@@ -0,0 +1,135 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.standard.commerce_maven.common.CapacityExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Core-sized pool with a bounded queue that runs all password hashing and
+ * matching off the request threads.
+ *
+ * When the queue is full work is rejected immediately with a
+ * {@link CapacityExceededException} (503 + Retry-After) instead of letting a
+ * login burst pin every Tomcat worker on CPU.
+ *
+ * Metrics: {@code password.hashing.queue.depth},
+ * {@code password.hashing.active}, {@code password.hashing.duration} (by
+ * operation) and {@code password.hashing.rejected}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${application.security.password.hashing.threads:0}") int threads,
+            @Value("${application.security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${application.security.password.hashing.retry-after:PT1S}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", this.pool, p -> p.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", this.pool, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a hashing operation on the pool and waits for its result.
+     *
+     * @param operation Metric tag, e.g. "encode" or "matches".
+     * @param task      The CPU-heavy work.
+     * @param <T>       Result type.
+     * @return The task's result.
+     * @throws CapacityExceededException if the queue is full.
+     */
+    public <T> T execute(String operation, Callable<T> task) {
+        Timer timer = timer(operation);
+        Future<T> future;
+        try {
+            future = this.pool.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            throw new CapacityExceededException("Password hashing capacity exceeded", this.retryAfter);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues background work (e.g. a rehash) without waiting. Dropped silently
+     * when the pool is saturated, since request traffic takes priority.
+     *
+     * @param operation Metric tag.
+     * @param task      The work to run.
+     * @return True if the task was queued.
+     */
+    public boolean tryExecuteInBackground(String operation, Runnable task) {
+        Timer timer = timer(operation);
+        try {
+            this.pool.execute(() -> timer.record(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent hashing or matching a password")
+                .tag("operation", operation)
+                .register(this.meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        this.pool.shutdown();
+    }
+}
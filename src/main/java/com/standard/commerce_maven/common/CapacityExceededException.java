@@ -0,0 +1,22 @@
+package com.standard.commerce_maven.common;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing pool) cannot
+ * accept more work. Mapped to 503 Service Unavailable with a Retry-After
+ * header so clients back off instead of piling up.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,48 @@
+package com.standard.commerce_maven.common;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Helpers for GET endpoints that answer revalidation with 304 Not Modified.
+ * Responses carry {@code Cache-Control: private, no-cache}: clients keep
+ * the body but revalidate it on every use, which costs a 304 without a body
+ * while nothing changed. Answered revalidations show up as status 304 in
+ * {@code http.server.requests}.
+ */
+public final class ConditionalRequests {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Evaluates the request's If-None-Match/If-Modified-Since against the
+     * current validators.
+     *
+     * @return The bodiless 304 if the client's copy is current, else null.
+     */
+    public static <T> ResponseEntity<T> checkNotModified(WebRequest request, String eTag, long lastModified) {
+        boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        if (!conditional || !request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        // checkNotModified has set the status, ETag and Last-Modified already
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    /**
+     * @return A 200 builder carrying the representation's validators.
+     */
+    public static ResponseEntity.BodyBuilder ok(String eTag, long lastModified) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(REVALIDATE);
+    }
+}
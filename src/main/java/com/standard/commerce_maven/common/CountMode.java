@@ -0,0 +1,20 @@
+package com.standard.commerce_maven.common;
+
+/**
+ * How a paged listing reports its total.
+ */
+public enum CountMode {
+    /** No total; the page only says whether there is a next one. */
+    NONE,
+    /** A cached, periodically refreshed approximation. */
+    ESTIMATE,
+    /** An exact {@code count(*)} on every request. */
+    EXACT;
+
+    /**
+     * @throws IllegalArgumentException for an unknown mode.
+     */
+    public static CountMode parse(String value) {
+        return CountMode.valueOf(value.trim().toUpperCase());
+    }
+}
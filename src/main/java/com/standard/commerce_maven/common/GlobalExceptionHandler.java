@@ -2,6 +2,8 @@ package com.standard.commerce_maven.common;
 
 import java.util.Arrays;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -36,6 +38,47 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ResponseDto<String>> handleCapacityExceeded(CapacityExceededException exception) {
+        return serviceUnavailable(exception);
+    }
+
+    /**
+     * Builds the 503 + Retry-After response for a saturated resource. Also used
+     * by controllers that catch exceptions themselves.
+     */
+    public static <T> ResponseEntity<ResponseDto<T>> serviceUnavailable(CapacityExceededException exception) {
+        ResponseDto<T> response = new ResponseDto<>(
+                null,
+                503,
+                exception.getMessage(),
+                "Server is busy, please retry later"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ResponseDto<String>> handlePreconditionFailed(PreconditionFailedException exception) {
+        return preconditionFailed(exception);
+    }
+
+    /**
+     * Builds the 412 response for a conditional write that lost to a
+     * concurrent change. Also used by controllers that catch exceptions
+     * themselves.
+     */
+    public static <T> ResponseEntity<ResponseDto<T>> preconditionFailed(PreconditionFailedException exception) {
+        ResponseDto<T> response = new ResponseDto<>(
+                null,
+                412,
+                exception.getMessage(),
+                "The resource was modified; read it again and retry"
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseDto<String>> handleGenericException(Exception exception) {
     ResponseDto<String> response = new ResponseDto<>(
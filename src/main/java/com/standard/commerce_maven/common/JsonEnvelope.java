@@ -0,0 +1,91 @@
+package com.standard.commerce_maven.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A {@link ResponseDto} serialized once with everything but its data, so a
+ * response whose data is already JSON bytes can be written without the
+ * ObjectMapper: prefix, data, suffix. Built from the application's
+ * ObjectMapper, so the envelope matches what Jackson would write.
+ */
+public final class JsonEnvelope {
+
+    private static final String PLACEHOLDER = "__json_envelope_data__";
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    private JsonEnvelope(byte[] prefix, byte[] suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @param objectMapper The mapper responses are otherwise written with.
+     * @param status       The envelope's status.
+     * @param message      The envelope's message.
+     * @return The envelope.
+     */
+    public static JsonEnvelope of(ObjectMapper objectMapper, int status, String message) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new ResponseDto<>(PLACEHOLDER, status, null, message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String quoted = "\"" + PLACEHOLDER + "\"";
+        int at = json.indexOf(quoted);
+        return new JsonEnvelope(json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                json.substring(at + quoted.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param data Serialized JSON to place as the envelope's data; not copied.
+     * @return The response body.
+     */
+    public Body wrap(byte[] data) {
+        return new Body(this.prefix, data, this.suffix);
+    }
+
+    /**
+     * A pre-serialized response body, written as-is by
+     * {@link JsonEnvelopeHttpMessageConverter}.
+     */
+    public static final class Body {
+
+        private final byte[] prefix;
+        private final byte[] data;
+        private final byte[] suffix;
+
+        private Body(byte[] prefix, byte[] data, byte[] suffix) {
+            this.prefix = prefix;
+            this.data = data;
+            this.suffix = suffix;
+        }
+
+        public long contentLength() {
+            return (long) this.prefix.length + this.data.length + this.suffix.length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(this.prefix);
+            out.write(this.data);
+            out.write(this.suffix);
+        }
+
+        /** @return A copy of the whole body. */
+        public byte[] toByteArray() {
+            byte[] body = Arrays.copyOf(this.prefix, (int) contentLength());
+            System.arraycopy(this.data, 0, body, this.prefix.length, this.data.length);
+            System.arraycopy(this.suffix, 0, body, this.prefix.length + this.data.length, this.suffix.length);
+            return body;
+        }
+    }
+}
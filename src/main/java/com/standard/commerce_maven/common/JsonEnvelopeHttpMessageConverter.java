@@ -0,0 +1,45 @@
+package com.standard.commerce_maven.common;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes {@link JsonEnvelope.Body} responses straight to the output stream,
+ * with their Content-Length, bypassing Jackson. Write-only.
+ */
+public class JsonEnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<JsonEnvelope.Body> {
+
+    public JsonEnvelopeHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonEnvelope.Body.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonEnvelope.Body readInternal(Class<? extends JsonEnvelope.Body> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-serialized JSON is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonEnvelope.Body body, MediaType contentType) {
+        return body.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(JsonEnvelope.Body body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,120 @@
+package com.standard.commerce_maven.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque cursor for keyset pagination. Carries the sort it was issued for and
+ * the key values of the row to continue from, so a page is fetched with an
+ * index seek ({@code where (sort_key, id) > (?, ?)}) instead of an OFFSET.
+ *
+ * The wire form is URL-safe base64 of a small typed binary record; clients
+ * must treat it as opaque.
+ */
+public record KeysetCursor(String property, Sort.Direction direction, boolean backward, Map<String, Object> keys) {
+
+    private static final int VERSION = 1;
+
+    public KeysetCursor {
+        keys = Map.copyOf(keys);
+    }
+
+    public static KeysetCursor forward(Sort.Order order, Map<String, Object> keys) {
+        return new KeysetCursor(order.getProperty(), order.getDirection(), false, keys);
+    }
+
+    public static KeysetCursor backward(Sort.Order order, Map<String, Object> keys) {
+        return new KeysetCursor(order.getProperty(), order.getDirection(), true, keys);
+    }
+
+    public Sort sort() {
+        return Sort.by(this.direction, this.property);
+    }
+
+    public ScrollPosition toScrollPosition() {
+        return this.backward ? ScrollPosition.backward(this.keys) : ScrollPosition.forward(this.keys);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(this.property);
+            out.writeBoolean(this.direction.isAscending());
+            out.writeBoolean(this.backward);
+            out.writeByte(this.keys.size());
+            for (Map.Entry<String, Object> key : this.keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            String property = in.readUTF();
+            Sort.Direction direction = in.readBoolean() ? Sort.Direction.ASC : Sort.Direction.DESC;
+            boolean backward = in.readBoolean();
+            int count = in.readByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            if (keys.isEmpty() || in.available() > 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(property, direction, backward, keys);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case String s -> {
+                out.writeByte('s');
+                out.writeUTF(s);
+            }
+            case UUID u -> {
+                out.writeByte('u');
+                out.writeLong(u.getMostSignificantBits());
+                out.writeLong(u.getLeastSignificantBits());
+            }
+            case LocalDateTime t -> {
+                out.writeByte('t');
+                out.writeUTF(t.toString());
+            }
+            default -> throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case 's' -> in.readUTF();
+            case 'u' -> new UUID(in.readLong(), in.readLong());
+            case 't' -> LocalDateTime.parse(in.readUTF());
+            default -> throw new IllegalArgumentException("Unknown cursor key type");
+        };
+    }
+}
@@ -2,14 +2,29 @@ package com.standard.commerce_maven.common;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Paged list envelope. Offset pages fill page and, when a total was asked
+ * for, totalElements/totalPages (flagged by totalEstimated when approximate);
+ * cursor pages fill nextCursor/prevCursor instead. Fields that do not apply
+ * are left null and omitted from the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationDto<T> {
     private List<T> data;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private Boolean totalEstimated;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor;
+    private String prevCursor;
 
     public PaginationDto() {}
 
@@ -23,6 +38,40 @@ public class PaginationDto<T> {
         this.hasPrevious = hasPrevious;
     }
 
+    public static <T> PaginationDto<T> fromPage(Page<T> page) {
+        return new PaginationDto<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages(), page.hasNext(), page.hasPrevious());
+    }
+
+    /**
+     * @param total An approximate total, or null to report none.
+     */
+    public static <T> PaginationDto<T> fromSlice(Slice<T> slice, Long total) {
+        PaginationDto<T> dto = new PaginationDto<>();
+        dto.data = slice.getContent();
+        dto.page = slice.getNumber();
+        dto.size = slice.getSize();
+        dto.hasNext = slice.hasNext();
+        dto.hasPrevious = slice.hasPrevious();
+        if (total != null) {
+            dto.totalElements = total;
+            dto.totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total / slice.getSize());
+            dto.totalEstimated = true;
+        }
+        return dto;
+    }
+
+    public static <T> PaginationDto<T> ofCursor(List<T> data, int size, String nextCursor, String prevCursor) {
+        PaginationDto<T> dto = new PaginationDto<>();
+        dto.data = data;
+        dto.size = size;
+        dto.nextCursor = nextCursor;
+        dto.prevCursor = prevCursor;
+        dto.hasNext = nextCursor != null;
+        dto.hasPrevious = prevCursor != null;
+        return dto;
+    }
+
     public List<T> getData() {
         return data;
     }
@@ -31,11 +80,11 @@ public class PaginationDto<T> {
         this.data = data;
     }
 
-    public int getPage() {
+    public Integer getPage() {
         return page;
     }
 
-    public void setPage(int page) {
+    public void setPage(Integer page) {
         this.page = page;
     }
 
@@ -47,22 +96,30 @@ public class PaginationDto<T> {
         this.size = size;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
+    public Boolean getTotalEstimated() {
+        return totalEstimated;
+    }
+
+    public void setTotalEstimated(Boolean totalEstimated) {
+        this.totalEstimated = totalEstimated;
+    }
+
     public boolean isHasNext() {
         return hasNext;
     }
@@ -78,4 +135,20 @@ public class PaginationDto<T> {
     public void setHasPrevious(boolean hasPrevious) {
         this.hasPrevious = hasPrevious;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
 }
@@ -0,0 +1,14 @@
+package com.standard.commerce_maven.common;
+
+/**
+ * Thrown when a conditional write's If-Match no longer names the current
+ * version of the resource: someone else changed it since the client read
+ * it. Mapped to 412 Precondition Failed; the client should re-read and
+ * retry.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
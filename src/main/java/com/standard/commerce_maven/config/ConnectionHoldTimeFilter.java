@@ -0,0 +1,54 @@
+package com.standard.commerce_maven.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the total time each request held database connections in the
+ * {@code http.server.requests.db.hold} timer, tagged like
+ * {@code http.server.requests} by method and URI pattern. Runs first so
+ * transactions in other filters count too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final ConnectionHoldTimeRecorder recorder;
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldTimeFilter(ConnectionHoldTimeRecorder recorder, MeterRegistry meterRegistry) {
+        this.recorder = recorder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        this.recorder.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long held = this.recorder.endRequest();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Timer.builder("http.server.requests.db.hold")
+                    .description("Time a request held database connections")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                    .register(this.meterRegistry)
+                    .record(held, TimeUnit.NANOSECONDS);
+        }
+    }
+}
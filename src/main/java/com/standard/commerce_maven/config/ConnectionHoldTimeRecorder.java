@@ -0,0 +1,123 @@
+package com.standard.commerce_maven.config;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Measures how long each transaction keeps its database connection, from
+ * begin to commit or rollback. With open-in-view disabled that is the time a
+ * connection is checked out for.
+ *
+ * Every transaction is recorded in the {@code db.transaction.hold} timer and
+ * added to the current request's total (see
+ * {@link ConnectionHoldTimeFilter}). Transactions held longer than
+ * {@code warn-threshold} are logged with the application frames that opened
+ * them; the stack is only walked for those.
+ */
+@Component
+public class ConnectionHoldTimeRecorder implements TransactionExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionHoldTimeRecorder.class);
+
+    private static final String APPLICATION_PACKAGE = "com.standard.commerce_maven.";
+    private static final int CALL_SITE_FRAMES = 5;
+
+    /** Keyed by identity: commit failures can report completion twice. */
+    private final ThreadLocal<Map<TransactionExecution, Long>> started = ThreadLocal.withInitial(IdentityHashMap::new);
+    private final ThreadLocal<long[]> requestTotal = new ThreadLocal<>();
+    private final Timer readWrite;
+    private final Timer readOnly;
+    private final long warnThresholdNanos;
+
+    public ConnectionHoldTimeRecorder(MeterRegistry meterRegistry,
+            @Value("${application.datasource.hold-time.warn-threshold:PT1S}") Duration warnThreshold) {
+        this.readWrite = holdTimer(meterRegistry, false);
+        this.readOnly = holdTimer(meterRegistry, true);
+        this.warnThresholdNanos = warnThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        // A savepoint runs on its outer transaction's connection
+        if (!transaction.isNested()) {
+            this.started.get().put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            this.started.get().remove(transaction);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        completed(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        completed(transaction);
+    }
+
+    /** Starts summing hold times for the request on this thread. */
+    void beginRequest() {
+        this.requestTotal.set(new long[1]);
+    }
+
+    /** @return The request's total hold time in nanoseconds. */
+    long endRequest() {
+        long[] total = this.requestTotal.get();
+        this.requestTotal.remove();
+        return total != null ? total[0] : 0;
+    }
+
+    private void completed(TransactionExecution transaction) {
+        Long startedAt = this.started.get().remove(transaction);
+        if (startedAt == null) {
+            return;
+        }
+        long held = System.nanoTime() - startedAt;
+        (transaction.isReadOnly() ? this.readOnly : this.readWrite).record(held, TimeUnit.NANOSECONDS);
+        long[] total = this.requestTotal.get();
+        if (total != null) {
+            total[0] += held;
+        }
+        if (held > this.warnThresholdNanos) {
+            log.warn("Transaction {} held its connection for {} ms, opened at {}", transaction.getTransactionName(),
+                    TimeUnit.NANOSECONDS.toMillis(held), callSite());
+        }
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(ConnectionHoldTimeRecorder.class.getName())
+                        && !frame.getClassName().contains("$$"))
+                .limit(CALL_SITE_FRAMES)
+                .map(frame -> frame.getClassName().substring(APPLICATION_PACKAGE.length()) + "."
+                        + frame.getMethodName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- ")));
+    }
+
+    private static Timer holdTimer(MeterRegistry meterRegistry, boolean readOnly) {
+        return Timer.builder("db.transaction.hold")
+                .description("Time a transaction kept its database connection")
+                .tag("read-only", String.valueOf(readOnly))
+                .register(meterRegistry);
+    }
+}
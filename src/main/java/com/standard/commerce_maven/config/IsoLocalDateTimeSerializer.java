@@ -0,0 +1,94 @@
+package com.standard.commerce_maven.config;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+/**
+ * Writes {@link LocalDateTime} exactly as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}
+ * does (seconds always, fraction without trailing zeros), but from a
+ * precomputed table of two-digit pairs into one char buffer instead of
+ * through the formatter's printer chain. Years outside 0000-9999 and
+ * properties with a {@link JsonFormat} fall back to the JavaTimeModule
+ * serializer.
+ */
+class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+    private static final char[] PAIRS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            PAIRS[i * 2] = (char) ('0' + i / 10);
+            PAIRS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale())) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+        char[] buffer = new char[29];
+        pair(buffer, 0, year / 100);
+        pair(buffer, 2, year % 100);
+        buffer[4] = '-';
+        pair(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        pair(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        pair(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        pair(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        pair(buffer, 17, value.getSecond());
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[19] = '.';
+            length = 20 + digits;
+            for (int i = length - 1; i >= 20; i--) {
+                buffer[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void pair(char[] buffer, int at, int value) {
+        buffer[at] = PAIRS[value * 2];
+        buffer[at + 1] = PAIRS[value * 2 + 1];
+    }
+}
@@ -0,0 +1,89 @@
+package com.standard.commerce_maven.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the auto-configured DataSource with a read/write router when
+ * replicas are configured under {@code application.datasource.replicas}.
+ * Without replicas Spring Boot's single pool is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadWriteDataSourceConfig {
+
+    /**
+     * The {@code spring.datasource} pool, still tuned through
+     * {@code spring.datasource.hikari.*}.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties primaryProperties, ReplicaDataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            String name = "replica-" + i;
+            replicas.put(name, replicaPool(name, configured.get(i), primaryProperties, meterRegistry));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                properties.getReadYourWrites(), properties.getMaxLag());
+    }
+
+    /**
+     * The DataSource everything else (JPA, JdbcTemplate, Flyway) uses. The
+     * lazy proxy defers the physical connection to the first statement, by
+     * which time the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(String name, ReplicaDataSourceProperties.Replica replica,
+            DataSourceProperties primary, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        pool.setDriverClassName(replica.getDriverClassName() != null
+                ? replica.getDriverClassName()
+                : primary.determineDriverClassName());
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        // Start even if a replica is unreachable; the health check brings it in
+        pool.setInitializationFailTimeout(-1);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
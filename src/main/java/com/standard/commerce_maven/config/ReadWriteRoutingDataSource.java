@@ -0,0 +1,247 @@
+package com.standard.commerce_maven.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a
+ * healthy replica, round-robin, and everything else to the primary.
+ *
+ * Reads stay on the primary when no replica is healthy, when a replica
+ * cannot hand out a connection (it is then marked down until the next
+ * health check), and for {@code readYourWrites} after a read-write
+ * transaction of the same principal commits. The routing decision needs the
+ * transaction's read-only flag, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ *
+ * Owns the replica pools and closes them on shutdown.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /** Seconds since the last replayed transaction; 0 when fully caught up. */
+    private static final String LAG_SQL = "select case when not pg_is_in_recovery() then 0 "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Cache<String, Boolean> pinned;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary       Pool for writes and for reads with no replica.
+     * @param replicas      Replica pools by name.
+     * @param readYourWrites How long a principal's reads stay on the primary
+     *                      after they commit a write.
+     * @param maxLag        Replication lag above which a replica is down.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            Duration readYourWrites, Duration maxLag) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .build();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return PRIMARY;
+        }
+        String principal = currentPrincipal();
+        if (principal != null && this.pinned.getIfPresent(principal) != null) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (!PRIMARY.equals(key)) {
+            Replica replica = replica(key);
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+        return this.primary.getConnection();
+    }
+
+    /** Explicit credentials are only ever meant for the primary. */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.primary.getConnection(username, password);
+    }
+
+    /**
+     * Probes every replica and marks it up or down. On PostgreSQL a replica
+     * more than {@code maxLag} behind the primary counts as down. Replicas
+     * start out up; one that cannot connect is marked down on first use.
+     */
+    @Scheduled(initialDelayString = "${application.datasource.health-check-interval:PT5S}",
+            fixedDelayString = "${application.datasource.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : this.replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(1)) {
+                    replica.markDown("connection is not valid");
+                    continue;
+                }
+                Duration lag = lagOf(connection);
+                if (lag.compareTo(this.maxLag) > 0) {
+                    replica.markDown("replication lag " + lag);
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    /** @return Whether the named replica is currently receiving reads. */
+    public boolean isHealthy(String replica) {
+        return replica(replica).healthy;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : this.replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Duration lagOf(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return Duration.ZERO;
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            double seconds = rs.getDouble(1);
+            return rs.wasNull() ? Duration.ZERO : Duration.ofMillis((long) (seconds * 1000));
+        }
+    }
+
+    /**
+     * Pins the current principal to the primary once the surrounding
+     * read-write transaction commits.
+     */
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String principal = currentPrincipal();
+        if (principal == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadWriteRoutingDataSource.this.pinned.put(principal, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private Replica nextHealthyReplica() {
+        int count = this.replicas.size();
+        int start = Math.floorMod(this.next.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            Replica replica = this.replicas.get((start + i) % count);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica replica(Object name) {
+        for (Replica replica : this.replicas) {
+            if (replica.name.equals(name)) {
+                return replica;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replica " + name);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(String reason) {
+            if (this.healthy) {
+                log.warn("Replica {} is down, reading from the primary: {}", this.name, reason);
+            }
+            this.healthy = false;
+        }
+
+        private void markUp() {
+            if (!this.healthy) {
+                log.info("Replica {} is back up", this.name);
+            }
+            this.healthy = true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.standard.commerce_maven.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Binds the {@code application.datasource.*} settings. With at least one
+ * replica listed, read-only transactions are served by the replicas and
+ * everything else by {@code spring.datasource}.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource")
+public class ReplicaDataSourceProperties {
+
+    /** Read replicas, used round-robin while healthy. */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long a principal's reads stay on the primary after one of their
+     * own transactions commits, so they see what they just wrote.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    /** How often replicas are probed, and marked up or down. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** Replicas further behind than this are treated as down (PostgreSQL). */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+        private String url;
+
+        /** Defaults to the primary's credentials and driver when unset. */
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+
+        /** Kept short: a replica that cannot hand out a connection is skipped. */
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
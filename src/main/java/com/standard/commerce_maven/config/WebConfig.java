@@ -1,6 +1,8 @@
 package com.standard.commerce_maven.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.common.JsonEnvelopeHttpMessageConverter;
+
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -26,5 +28,7 @@ public class WebConfig implements WebMvcConfigurer {
                 ((MappingJackson2HttpMessageConverter) converter).setObjectMapper(objectMapper);
             }
         }
+        // Pre-serialized responses (cached user JSON) skip Jackson entirely
+        converters.add(0, new JsonEnvelopeHttpMessageConverter());
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.standard.commerce_maven.mailing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Binds the {@code application.mailing.throttle.*} settings: one token bucket
+ * for the sending account and one per recipient domain, with per-domain
+ * overrides under {@code domains.<domain>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.mailing.throttle")
+public class MailThrottleProperties {
+
+    private boolean enabled = true;
+
+    /** Budget of the SMTP account we send from. */
+    private Limit sender = new Limit(5, 20);
+
+    /** Budget for any recipient domain without an override. */
+    private Limit domainDefault = new Limit(5, 20);
+
+    /** Overrides keyed by lower-case domain, e.g. {@code gmail.com}. */
+    private Map<String, Limit> domains = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        /** Sustained messages per second. */
+        private double rate;
+
+        /** Messages that may be sent back to back after an idle period. */
+        private int burst;
+
+        public Limit() {
+        }
+
+        public Limit(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+}
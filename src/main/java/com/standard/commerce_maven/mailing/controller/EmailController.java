@@ -1,19 +1,35 @@
 package com.standard.commerce_maven.mailing.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.Arrays;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.mailing.dto.CampaignProgress;
+import com.standard.commerce_maven.mailing.dto.CampaignRequest;
 import com.standard.commerce_maven.mailing.dto.EmailRequest;
-import com.standard.commerce_maven.mailing.service.EmailService;
+import com.standard.commerce_maven.mailing.dto.MailJobStatus;
+import com.standard.commerce_maven.mailing.service.CampaignProgressTracker;
+import com.standard.commerce_maven.mailing.service.CampaignService;
+import com.standard.commerce_maven.mailing.service.CampaignService.RecipientFormat;
+import com.standard.commerce_maven.mailing.service.MailOutboxService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 
 /**
  * REST Controller for triggering email sending.
@@ -23,31 +39,43 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping("/api/mailing") // Base path for email-related endpoints
 public class EmailController {
 
-    private final EmailService emailService;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final MailOutboxService mailOutboxService;
+    private final CampaignService campaignService;
+    private final CampaignProgressTracker progressTracker;
 
     @Autowired
-    public EmailController(EmailService emailService) {
-        this.emailService = emailService;
+    public EmailController(MailOutboxService mailOutboxService, CampaignService campaignService,
+            CampaignProgressTracker progressTracker) {
+        this.mailOutboxService = mailOutboxService;
+        this.campaignService = campaignService;
+        this.progressTracker = progressTracker;
     }
 
     /**
-     * POST /api/email/send
-     * Endpoint to send an email based on the provided EmailRequest.
+     * POST /api/mailing/send
+     * Queues an email for background delivery and returns 202 Accepted with
+     * the job ID. Delivery progress is available from
+     * GET /api/mailing/jobs/{id}.
      * Requires authentication (handled by Spring Security configured previously).
      *
      * @param emailRequest The DTO containing recipient, subject, and body.
-     * @return ResponseEntity indicating success or failure.
+     * @return ResponseEntity with the job ID.
      */
     @PostMapping("/send")
-    public ResponseEntity<ResponseDto<String>> sendEmail(@RequestBody EmailRequest emailRequest) {
-        ResponseDto<String> response = new ResponseDto<>();
+    public ResponseEntity<ResponseDto<UUID>> sendEmail(@RequestBody EmailRequest emailRequest) {
+        ResponseDto<UUID> response = new ResponseDto<>();
         try {
-            emailService.sendEmail(emailRequest);
-            response.setData("Email sent successfully!");
-            response.setStatus(200);
-            response.setMessage("Email sent successfully");
+            UUID jobId = mailOutboxService.enqueue(emailRequest);
+            response.setData(jobId);
+            response.setStatus(202);
+            response.setMessage("Email queued for delivery");
             response.setError(null);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/mailing/jobs/" + jobId))
+                    .body(response);
         } catch (IllegalArgumentException e) {
             response.setData(null);
             response.setStatus(400);
@@ -57,9 +85,112 @@ public class EmailController {
         } catch (RuntimeException e) {
             response.setData(null);
             response.setStatus(500);
-            response.setMessage("Failed to send email");
+            response.setMessage("Failed to queue email");
             response.setError(Arrays.toString(e.getStackTrace()));
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    /**
+     * GET /api/mailing/jobs/{id}
+     * Returns the delivery state of a queued email.
+     *
+     * @param id The job ID returned by /send.
+     * @return ResponseEntity with the job status, or 404 if unknown.
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ResponseDto<MailJobStatus>> getJobStatus(@PathVariable UUID id) {
+        ResponseDto<MailJobStatus> response = new ResponseDto<>();
+        return mailOutboxService.getStatus(id)
+                .map(status -> {
+                    response.setData(status);
+                    response.setStatus(200);
+                    response.setMessage("Mail job found");
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    response.setStatus(404);
+                    response.setMessage("Mail job not found");
+                    return ResponseEntity.status(404).body(response);
+                });
+    }
+
+    /**
+     * POST /api/mailing/campaigns (application/json)
+     * Queues a campaign to every user matching the filter.
+     *
+     * @param campaignRequest Subject, body, user filter and optional rate.
+     * @return 202 with the campaign's progress.
+     */
+    @PostMapping(value = "/campaigns", consumes = "application/json")
+    public ResponseEntity<ResponseDto<CampaignProgress>> startUserCampaign(
+            @Valid @RequestBody CampaignRequest campaignRequest) {
+        return campaignAccepted(this.campaignService.startForUsers(campaignRequest));
+    }
+
+    /**
+     * POST /api/mailing/campaigns (application/x-ndjson or text/csv)
+     * Queues a campaign for a streamed recipient list. The body is read line
+     * by line and never held in memory as a whole.
+     *
+     * @param subject    The email subject.
+     * @param body       The email body.
+     * @param rate       Optional messages per second.
+     * @param contentType NDJSON or CSV.
+     * @param recipients The raw request body.
+     * @return 202 with the campaign's progress.
+     */
+    @PostMapping(value = "/campaigns", consumes = { NDJSON, CSV })
+    public ResponseEntity<ResponseDto<CampaignProgress>> startStreamedCampaign(
+            @RequestParam String subject,
+            @RequestParam String body,
+            @RequestParam(required = false) Double rate,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream recipients) {
+        ResponseDto<CampaignProgress> response = new ResponseDto<>();
+        try {
+            RecipientFormat format = contentType.startsWith(CSV) ? RecipientFormat.CSV : RecipientFormat.NDJSON;
+            return campaignAccepted(this.campaignService.startFromStream(subject, body, recipients, format, rate));
+        } catch (IOException e) {
+            response.setStatus(400);
+            response.setMessage("Could not read recipient list");
+            response.setError(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * GET /api/mailing/campaigns/{id}
+     * Live queued/sent/failed recipient counters for a campaign, counted
+     * from the outbox.
+     *
+     * @param id The campaign ID.
+     * @return The progress, or 404 if no such campaign exists.
+     */
+    @GetMapping("/campaigns/{id}")
+    public ResponseEntity<ResponseDto<CampaignProgress>> getCampaignProgress(@PathVariable UUID id) {
+        ResponseDto<CampaignProgress> response = new ResponseDto<>();
+        return this.progressTracker.get(id)
+                .map(progress -> {
+                    response.setData(progress);
+                    response.setStatus(200);
+                    response.setMessage("Campaign found");
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    response.setStatus(404);
+                    response.setMessage("Campaign not found");
+                    return ResponseEntity.status(404).body(response);
+                });
+    }
+
+    private ResponseEntity<ResponseDto<CampaignProgress>> campaignAccepted(UUID campaignId) {
+        ResponseDto<CampaignProgress> response = new ResponseDto<>();
+        response.setData(this.progressTracker.get(campaignId).orElse(null));
+        response.setStatus(202);
+        response.setMessage("Campaign queued for delivery");
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/mailing/campaigns/" + campaignId))
+                .body(response);
+    }
 }
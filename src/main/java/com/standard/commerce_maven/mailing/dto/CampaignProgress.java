@@ -0,0 +1,23 @@
+package com.standard.commerce_maven.mailing.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Live counters for a bulk campaign, in recipients.
+ *
+ * @param id        Campaign ID.
+ * @param accepting True while recipients are still being read and queued.
+ * @param queued    Recipients written to the outbox so far.
+ * @param sent      Recipients in messages the SMTP server accepted.
+ * @param failed    Recipients that were rejected or dead-lettered.
+ * @param startedAt When the campaign was created.
+ */
+public record CampaignProgress(
+        UUID id,
+        boolean accepting,
+        long queued,
+        long sent,
+        long failed,
+        Instant startedAt) {
+}
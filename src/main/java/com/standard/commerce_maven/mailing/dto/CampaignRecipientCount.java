@@ -0,0 +1,9 @@
+package com.standard.commerce_maven.mailing.dto;
+
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+
+/**
+ * Recipients in a campaign's outbox messages with one status.
+ */
+public record CampaignRecipientCount(MailStatus status, long recipients) {
+}
@@ -0,0 +1,26 @@
+package com.standard.commerce_maven.mailing.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * A campaign sent to every user matching a filter. Null filter fields match
+ * all users.
+ */
+@Data
+public class CampaignRequest {
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Body is required")
+    private String body;
+
+    @Pattern(regexp = "^(USER|ADMIN|SUPER_ADMIN)$", message = "User type must be USER, ADMIN or SUPER_ADMIN")
+    private String userType;
+
+    private boolean verifiedOnly;
+
+    /** Messages per second; falls back to the configured default. */
+    private Double rate;
+}
@@ -12,6 +12,7 @@ public class EmailRequest {
     private String body;
     private List<String> cc; // Optional CC recipients
     private List<String> bcc; // Optional BCC recipients
+    private String htmlBody; // Optional HTML alternative to body
 
     public EmailRequest() {
     }
@@ -51,6 +52,10 @@ public class EmailRequest {
         return bcc;
     }
 
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+
     // Setters
     public void setTo(List<String> to) {
         this.to = to;
@@ -72,6 +77,10 @@ public class EmailRequest {
         this.bcc = bcc;
     }
 
+    public void setHtmlBody(String htmlBody) {
+        this.htmlBody = htmlBody;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -83,12 +92,13 @@ public class EmailRequest {
                 Objects.equals(subject, that.subject) &&
                 Objects.equals(body, that.body) &&
                 Objects.equals(cc, that.cc) &&
-                Objects.equals(bcc, that.bcc);
+                Objects.equals(bcc, that.bcc) &&
+                Objects.equals(htmlBody, that.htmlBody);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(to, subject, body, cc, bcc);
+        return Objects.hash(to, subject, body, cc, bcc, htmlBody);
     }
 
     @Override
@@ -99,6 +109,7 @@ public class EmailRequest {
                 ", body.length=" + (body != null ? body.length() : "null") + // Avoid logging full body
                 ", cc=" + cc +
                 ", bcc=" + bcc +
+                ", htmlBody.length=" + (htmlBody != null ? htmlBody.length() : "null") +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.standard.commerce_maven.mailing.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.standard.commerce_maven.mailing.entity.MailOutboxMessage;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+
+/**
+ * Delivery state of a queued email, as returned by the job status endpoint.
+ */
+public record MailJobStatus(
+        UUID id,
+        MailStatus status,
+        int attempts,
+        Instant nextAttemptAt,
+        String lastError,
+        Instant createdAt,
+        Instant sentAt) {
+
+    public static MailJobStatus from(MailOutboxMessage message) {
+        return new MailJobStatus(
+                message.getId(),
+                message.getStatus(),
+                message.getAttempts(),
+                message.getNextAttemptAt(),
+                message.getLastError(),
+                message.getCreatedAt(),
+                message.getSentAt());
+    }
+}
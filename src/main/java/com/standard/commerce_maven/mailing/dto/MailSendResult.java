@@ -0,0 +1,14 @@
+package com.standard.commerce_maven.mailing.dto;
+
+/**
+ * Outcome of one message in {@code EmailService.sendAll}.
+ *
+ * @param request The email that was sent.
+ * @param error   Why it failed, or null if it was accepted by the server.
+ */
+public record MailSendResult(EmailRequest request, Exception error) {
+
+    public boolean isSent() {
+        return error == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.standard.commerce_maven.mailing.dto;
+
+import java.util.List;
+
+/**
+ * Output of rendering a mail template: a subject plus plain-text and HTML
+ * alternatives of the body.
+ */
+public record RenderedEmail(String subject, String textBody, String htmlBody) {
+
+    public EmailRequest toRequest(List<String> recipients) {
+        EmailRequest request = new EmailRequest(recipients, subject, textBody);
+        request.setHtmlBody(htmlBody);
+        return request;
+    }
+}
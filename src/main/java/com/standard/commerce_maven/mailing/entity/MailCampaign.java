@@ -0,0 +1,63 @@
+package com.standard.commerce_maven.mailing.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * A bulk campaign. Its messages live in the mail outbox (tagged with the
+ * campaign id), so delivery progress is counted from there; this row only
+ * records what the outbox cannot: whether recipients are still being queued
+ * and how many addresses were rejected before reaching it.
+ */
+@Entity
+@Table(name = "mail_campaigns")
+public class MailCampaign {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false)
+    private boolean accepting = true;
+
+    /** Addresses that failed validation while the recipient list was read. */
+    @Column(name = "rejected_recipients", nullable = false)
+    private long rejectedRecipients;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public MailCampaign() {
+    }
+
+    public MailCampaign(UUID id) {
+        this.id = id;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) this.createdAt = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    public long getRejectedRecipients() {
+        return rejectedRecipients;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
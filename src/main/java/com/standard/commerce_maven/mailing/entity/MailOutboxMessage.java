@@ -0,0 +1,212 @@
+package com.standard.commerce_maven.mailing.entity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * An email waiting to be delivered. Rows are written in the caller's
+ * transaction and drained by the MailOutboxDispatcher, so a request never
+ * waits on SMTP and a rolled-back request never sends mail.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_mail_outbox_campaign", columnList = "campaign_id, status")
+})
+public class MailOutboxMessage {
+
+    private static final String SEPARATOR = ",";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "to_recipients", nullable = false, columnDefinition = "text")
+    private String toRecipients;
+
+    @Column(name = "cc_recipients", columnDefinition = "text")
+    private String ccRecipients;
+
+    @Column(name = "bcc_recipients", columnDefinition = "text")
+    private String bccRecipients;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Column(name = "html_body", columnDefinition = "text")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MailStatus status = MailStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    /** Set for messages that belong to a bulk campaign. */
+    @Column(name = "campaign_id")
+    private UUID campaignId;
+
+    @Column(name = "recipient_count", nullable = false, columnDefinition = "integer default 0")
+    private int recipientCount;
+
+    public MailOutboxMessage() {
+    }
+
+    public MailOutboxMessage(EmailRequest request) {
+        this.toRecipients = join(request.getTo());
+        this.ccRecipients = join(request.getCc());
+        this.bccRecipients = join(request.getBcc());
+        this.subject = request.getSubject();
+        this.body = request.getBody();
+        this.htmlBody = request.getHtmlBody();
+        this.recipientCount = size(request.getTo()) + size(request.getCc()) + size(request.getBcc());
+    }
+
+    /**
+     * A campaign message: recipients are in BCC and the visible 'to' is the
+     * sender itself, so only the BCC list counts towards progress.
+     */
+    public MailOutboxMessage(EmailRequest request, UUID campaignId, Instant notBefore) {
+        this(request);
+        this.campaignId = campaignId;
+        this.nextAttemptAt = notBefore;
+        this.recipientCount = size(request.getBcc());
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        if (this.createdAt == null) this.createdAt = now;
+        if (this.nextAttemptAt == null) this.nextAttemptAt = now;
+    }
+
+    /**
+     * Rebuilds the request that the EmailService sends.
+     */
+    public EmailRequest toEmailRequest() {
+        EmailRequest request = new EmailRequest(split(toRecipients), subject, body, split(ccRecipients),
+                split(bccRecipients));
+        request.setHtmlBody(htmlBody);
+        return request;
+    }
+
+    private static String join(List<String> addresses) {
+        return addresses == null || addresses.isEmpty() ? null : String.join(SEPARATOR, addresses);
+    }
+
+    private static int size(List<String> addresses) {
+        return addresses == null ? 0 : addresses.size();
+    }
+
+    private static List<String> split(String addresses) {
+        return addresses == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(addresses.split(SEPARATOR)));
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getToRecipients() {
+        return toRecipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public MailStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MailStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public UUID getCampaignId() {
+        return campaignId;
+    }
+
+    public int getRecipientCount() {
+        return recipientCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MailOutboxMessage{" +
+                "id=" + id +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
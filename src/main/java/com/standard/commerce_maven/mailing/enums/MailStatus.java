@@ -0,0 +1,17 @@
+package com.standard.commerce_maven.mailing.enums;
+
+/**
+ * Lifecycle of a message in the mail outbox.
+ */
+public enum MailStatus {
+    /** Waiting for its next delivery attempt. */
+    PENDING,
+    /**
+     * Claimed by a dispatcher; the claim lapses at nextAttemptAt, and a lapsed
+     * claim counts as a failed attempt.
+     */
+    SENDING,
+    SENT,
+    /** Gave up after the maximum number of attempts. */
+    DEAD
+}
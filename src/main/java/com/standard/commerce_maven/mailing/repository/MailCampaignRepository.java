@@ -0,0 +1,29 @@
+package com.standard.commerce_maven.mailing.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.standard.commerce_maven.mailing.entity.MailCampaign;
+
+/**
+ * Repository for bulk campaigns.
+ */
+@Repository
+public interface MailCampaignRepository extends JpaRepository<MailCampaign, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query("update MailCampaign c set c.rejectedRecipients = c.rejectedRecipients + :count where c.id = :id")
+    int addRejected(@Param("id") UUID id, @Param("count") long count);
+
+    @Transactional
+    @Modifying
+    @Query("update MailCampaign c set c.accepting = false where c.id = :id")
+    int finishAccepting(@Param("id") UUID id);
+}
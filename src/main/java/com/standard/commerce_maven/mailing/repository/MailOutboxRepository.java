@@ -0,0 +1,71 @@
+package com.standard.commerce_maven.mailing.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.standard.commerce_maven.mailing.dto.CampaignRecipientCount;
+import com.standard.commerce_maven.mailing.entity.MailOutboxMessage;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repository for the mail outbox.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, UUID> {
+
+    /**
+     * Locks the next due messages: PENDING ones whose backoff has passed and
+     * SENDING ones whose claim has lapsed (the dispatcher died mid-send).
+     * Rows locked by another instance are skipped rather than waited on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("select m from MailOutboxMessage m where m.status in :statuses and m.nextAttemptAt <= :now "
+            + "order by m.nextAttemptAt")
+    List<MailOutboxMessage> findDueForUpdate(
+            @Param("statuses") List<MailStatus> statuses, @Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update MailOutboxMessage m set m.status = com.standard.commerce_maven.mailing.enums.MailStatus.SENT, "
+            + "m.attempts = m.attempts + 1, m.sentAt = :sentAt, m.lastError = null where m.id = :id")
+    int markSent(@Param("id") UUID id, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update MailOutboxMessage m set m.status = :status, m.attempts = m.attempts + 1, "
+            + "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error where m.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("status") MailStatus status,
+            @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Puts a claimed message back without counting an attempt (used when the
+     * send-rate budget is exhausted).
+     */
+    @Transactional
+    @Modifying
+    @Query("update MailOutboxMessage m set m.status = com.standard.commerce_maven.mailing.enums.MailStatus.PENDING, "
+            + "m.nextAttemptAt = :nextAttemptAt where m.id = :id")
+    int defer(@Param("id") UUID id, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    long countByStatus(MailStatus status);
+
+    /** A campaign's recipients per message status. */
+    @Query("select new com.standard.commerce_maven.mailing.dto.CampaignRecipientCount(m.status, sum(m.recipientCount)) "
+            + "from MailOutboxMessage m where m.campaignId = :campaignId group by m.status")
+    List<CampaignRecipientCount> countRecipientsByStatus(@Param("campaignId") UUID campaignId);
+}
@@ -0,0 +1,70 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.standard.commerce_maven.mailing.dto.CampaignProgress;
+import com.standard.commerce_maven.mailing.dto.CampaignRecipientCount;
+import com.standard.commerce_maven.mailing.entity.MailCampaign;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+import com.standard.commerce_maven.mailing.repository.MailCampaignRepository;
+import com.standard.commerce_maven.mailing.repository.MailOutboxRepository;
+
+/**
+ * Campaign progress, read from the database so every instance reports the
+ * same numbers, including for campaigns queued before a restart or sent by
+ * other instances.
+ *
+ * Queued, sent and dead-lettered recipients are summed from the campaign's
+ * outbox messages grouped by status (an index seek on campaign_id, status).
+ * The campaign row holds the accepting flag and the addresses rejected
+ * before they reached the outbox.
+ */
+@Component
+public class CampaignProgressTracker {
+
+    private final MailCampaignRepository campaignRepository;
+    private final MailOutboxRepository outboxRepository;
+
+    public CampaignProgressTracker(MailCampaignRepository campaignRepository,
+            MailOutboxRepository outboxRepository) {
+        this.campaignRepository = campaignRepository;
+        this.outboxRepository = outboxRepository;
+    }
+
+    public void start(UUID campaignId) {
+        this.campaignRepository.save(new MailCampaign(campaignId));
+    }
+
+    public void recordRejected(UUID campaignId, long recipients) {
+        if (recipients > 0) {
+            this.campaignRepository.addRejected(campaignId, recipients);
+        }
+    }
+
+    public void finishAccepting(UUID campaignId) {
+        this.campaignRepository.finishAccepting(campaignId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CampaignProgress> get(UUID campaignId) {
+        return this.campaignRepository.findById(campaignId).map(campaign -> {
+            long queued = 0;
+            long sent = 0;
+            long failed = campaign.getRejectedRecipients();
+            for (CampaignRecipientCount count : this.outboxRepository.countRecipientsByStatus(campaignId)) {
+                queued += count.recipients();
+                if (count.status() == MailStatus.SENT) {
+                    sent += count.recipients();
+                } else if (count.status() == MailStatus.DEAD) {
+                    failed += count.recipients();
+                }
+            }
+            return new CampaignProgress(campaignId, campaign.isAccepting(), queued, sent, failed,
+                    campaign.getCreatedAt());
+        });
+    }
+}
@@ -0,0 +1,250 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.mailing.dto.CampaignRequest;
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.user.dtos.UserEmail;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * Turns a recipient stream into outbox messages.
+ *
+ * Recipients are read one at a time (from the request body or from the users
+ * table, a page at a time) and grouped into messages of at most
+ * {@code max-recipients-per-message} BCC recipients. Messages are written to
+ * the outbox in chunks, each scheduled {@code 1/rate} seconds after the
+ * previous one, so the outbox workers send them concurrently but never faster
+ * than the campaign's rate. Memory use is independent of the list size.
+ */
+@Service
+public class CampaignService {
+
+    /** Supported formats for a streamed recipient list. */
+    public enum RecipientFormat {
+        /** One JSON value per line: {@code {"email": "..."}} or {@code "..."}. */
+        NDJSON,
+        /** The address is the first column; a header row is skipped. */
+        CSV
+    }
+
+    private final MailOutboxService mailOutboxService;
+    private final UserRepository userRepository;
+    private final CampaignProgressTracker progressTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.mail.username}") // Visible 'to' address; real recipients go in BCC
+    private String fromEmail;
+
+    @Value("${application.mailing.campaigns.max-recipients-per-message:50}")
+    private int maxRecipientsPerMessage;
+
+    @Value("${application.mailing.campaigns.messages-per-second:10}")
+    private double defaultRate;
+
+    @Value("${application.mailing.campaigns.page-size:500}")
+    private int pageSize;
+
+    @Value("${application.mailing.campaigns.messages-per-transaction:100}")
+    private int messagesPerTransaction;
+
+    public CampaignService(MailOutboxService mailOutboxService, UserRepository userRepository,
+            CampaignProgressTracker progressTracker, ObjectMapper objectMapper) {
+        this.mailOutboxService = mailOutboxService;
+        this.userRepository = userRepository;
+        this.progressTracker = progressTracker;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queues a campaign for a streamed recipient list. Returns once the whole
+     * stream has been read and queued; sending continues in the background.
+     *
+     * @param subject    The email subject.
+     * @param body       The email body.
+     * @param recipients The NDJSON or CSV stream.
+     * @param format     Format of the stream.
+     * @param rate       Messages per second, or null for the default.
+     * @return The campaign ID.
+     * @throws IOException if the stream cannot be read.
+     */
+    public UUID startFromStream(String subject, String body, InputStream recipients, RecipientFormat format,
+            Double rate) throws IOException {
+        Batcher batcher = new Batcher(subject, body, rate);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(recipients, StandardCharsets.UTF_8))) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String address = format == RecipientFormat.NDJSON ? fromNdjson(line) : fromCsv(line);
+                if (first && format == RecipientFormat.CSV && !isValid(address)) {
+                    first = false;
+                    continue; // Header row
+                }
+                first = false;
+                batcher.add(address);
+            }
+        } finally {
+            batcher.finish();
+        }
+        return batcher.campaignId;
+    }
+
+    /**
+     * Queues a campaign for every user matching the filter, paging through the
+     * users table by id.
+     *
+     * @param request Subject, body and filter.
+     * @return The campaign ID.
+     */
+    public UUID startForUsers(CampaignRequest request) {
+        UserType userType = request.getUserType() != null ? UserType.valueOf(request.getUserType()) : null;
+        Batcher batcher = new Batcher(request.getSubject(), request.getBody(), request.getRate());
+        try {
+            UUID afterId = null;
+            List<UserEmail> page;
+            do {
+                page = this.userRepository.findEmailPage(afterId, userType, request.isVerifiedOnly(),
+                        PageRequest.of(0, this.pageSize));
+                for (UserEmail user : page) {
+                    batcher.add(user.email());
+                }
+                afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+            } while (page.size() == this.pageSize);
+        } finally {
+            batcher.finish();
+        }
+        return batcher.campaignId;
+    }
+
+    private String fromNdjson(String line) {
+        try {
+            JsonNode node = this.objectMapper.readTree(line);
+            JsonNode email = node.isTextual() ? node : node.get("email");
+            return email != null && email.isTextual() ? email.asText().trim() : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String fromCsv(String line) {
+        int comma = line.indexOf(',');
+        String field = (comma >= 0 ? line.substring(0, comma) : line).trim();
+        if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+            field = field.substring(1, field.length() - 1).trim();
+        }
+        return field;
+    }
+
+    /**
+     * Cheap sanity check; the SMTP server is the real judge. Commas are
+     * rejected because the outbox stores recipient lists comma-separated.
+     */
+    private static boolean isValid(String address) {
+        if (address == null || address.isEmpty() || address.length() > 320) {
+            return false;
+        }
+        int at = address.indexOf('@');
+        if (at <= 0 || at != address.lastIndexOf('@') || at == address.length() - 1) {
+            return false;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c == ',' || c == ';' || Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accumulates recipients into messages and messages into transactions.
+     */
+    private final class Batcher {
+        private final UUID campaignId = UUID.randomUUID();
+        private final String subject;
+        private final String body;
+        private final long spacingNanos;
+        private final Instant start = Instant.now();
+        private final List<EmailRequest> messages = new ArrayList<>();
+        private List<String> recipients = new ArrayList<>();
+        private long scheduled;
+        private long rejected;
+
+        private Batcher(String subject, String body, Double rate) {
+            double messagesPerSecond = rate != null && rate > 0 ? rate : defaultRate;
+            this.subject = subject;
+            this.body = body;
+            this.spacingNanos = (long) (1_000_000_000L / messagesPerSecond);
+            progressTracker.start(this.campaignId);
+        }
+
+        private void add(String address) {
+            if (!isValid(address)) {
+                this.rejected++; // Written with the next chunk, not one UPDATE per address
+                return;
+            }
+            this.recipients.add(address);
+            if (this.recipients.size() == maxRecipientsPerMessage) {
+                closeMessage();
+            }
+        }
+
+        private void closeMessage() {
+            this.messages.add(new EmailRequest(List.of(fromEmail.trim()), this.subject, this.body,
+                    null, this.recipients));
+            this.recipients = new ArrayList<>();
+            if (this.messages.size() == messagesPerTransaction) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (this.messages.isEmpty()) {
+                return;
+            }
+            Instant notBefore = this.start.plus(Duration.ofNanos(this.scheduled * this.spacingNanos));
+            mailOutboxService.enqueueCampaignMessages(this.campaignId, this.messages, notBefore,
+                    Duration.ofNanos(this.spacingNanos));
+            this.scheduled += this.messages.size();
+            this.messages.clear();
+            recordRejected();
+        }
+
+        private void recordRejected() {
+            progressTracker.recordRejected(this.campaignId, this.rejected);
+            this.rejected = 0;
+        }
+
+        private void finish() {
+            try {
+                if (!this.recipients.isEmpty()) {
+                    closeMessage();
+                }
+                flush();
+            } finally {
+                recordRejected();
+                progressTracker.finishAccepting(this.campaignId);
+            }
+        }
+    }
+}
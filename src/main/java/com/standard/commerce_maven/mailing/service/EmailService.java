@@ -1,30 +1,51 @@
 package com.standard.commerce_maven.mailing.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service; // Import Value for 'from' address
 
 import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.mailing.dto.MailSendResult;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
 
 /**
  * Service class responsible for sending emails.
- * Uses Spring's JavaMailSender to interact with an SMTP server.
+ * Messages are sent over connections borrowed from the
+ * {@link SmtpConnectionPool}, so consecutive sends skip the connect, TLS
+ * handshake and AUTH round trips.
  */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     private final JavaMailSender mailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final MailTemplateRenderer templateRenderer;
 
     @Value("${spring.mail.username}") // Injects the email username from properties as the sender
     private String fromEmail;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, SmtpConnectionPool connectionPool,
+            MailTemplateRenderer templateRenderer) {
         this.mailSender = mailSender;
+        this.connectionPool = connectionPool;
+        this.templateRenderer = templateRenderer;
     }
 
     /**
@@ -35,21 +56,7 @@ public class EmailService {
      * @param body    The body content of the email.
      */
     public void sendSimpleEmail(List<String> to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail); // Set the 'from' address from application properties
-        message.setTo(to.toArray(new String[0])); // Convert list to array
-        message.setSubject(subject);
-        message.setText(body);
-
-        try {
-            mailSender.send(message);
-            System.out.println("Email sent successfully to: " + String.join(", ", to));
-        } catch (MailException e) {
-            System.err.println("Error sending email to " + String.join(", ", to) + ": " + Arrays.toString(e.getStackTrace()));
-            // In a real application, you might throw a custom exception, log to a
-            // monitoring system, etc.
-            throw new RuntimeException("Failed to send email", e);
-        }
+        sendEmail(new EmailRequest(to, subject, body));
     }
 
     /**
@@ -58,43 +65,123 @@ public class EmailService {
      * @param emailRequest The EmailRequest DTO containing all email details.
      */
     public void sendEmail(EmailRequest emailRequest) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail); // Set the 'from' address
-
-        if (emailRequest.getTo() != null && !emailRequest.getTo().isEmpty()) {
-            message.setTo(emailRequest.getTo().toArray(new String[0]));
-        } else {
+        if (emailRequest.getTo() == null || emailRequest.getTo().isEmpty()) {
             throw new IllegalArgumentException("Recipient 'to' list cannot be empty for email.");
         }
+        MailSendResult result = sendAll(List.of(emailRequest)).get(0);
+        if (!result.isSent()) {
+            log.warn("Error sending email {}: {}", emailRequest, result.error().getMessage());
+            throw new RuntimeException("Failed to send email", result.error());
+        }
+        log.debug("Email sent successfully: {}", emailRequest);
+    }
 
-        message.setSubject(emailRequest.getSubject());
-        message.setText(emailRequest.getBody());
+    /**
+     * Renders a template and sends it as multipart text + HTML.
+     *
+     * @param templateId Template name, e.g. "password-reset".
+     * @param locale     Locale for the subject and messages.
+     * @param model      Template variables.
+     * @param recipients The 'to' addresses.
+     */
+    public void sendTemplated(String templateId, Locale locale, Map<String, Object> model, List<String> recipients) {
+        sendEmail(this.templateRenderer.render(templateId, locale, model).toRequest(recipients));
+    }
 
+    /**
+     * Sends several emails, reusing pooled connections so that the whole batch
+     * usually goes over a single SMTP session. A message rejected by the server
+     * does not stop the rest; if the connection itself drops, the message is
+     * retried once on a fresh connection.
+     *
+     * @param emailRequests The emails to send.
+     * @return One result per request, in the same order.
+     */
+    public List<MailSendResult> sendAll(List<EmailRequest> emailRequests) {
+        List<MailSendResult> results = new ArrayList<>(emailRequests.size());
+        SmtpConnectionPool.PooledTransport pooled = null;
+        boolean retried = false;
+        try {
+            for (int i = 0; i < emailRequests.size(); i++) {
+                EmailRequest request = emailRequests.get(i);
+                MimeMessage message;
+                try {
+                    message = toMimeMessage(request);
+                } catch (IllegalArgumentException | MessagingException e) {
+                    results.add(new MailSendResult(request, e instanceof MessagingException
+                            ? new MailParseException(e) : e));
+                    continue;
+                }
+                try {
+                    if (pooled == null) {
+                        pooled = this.connectionPool.borrow();
+                    }
+                    pooled.getTransport().sendMessage(message, message.getAllRecipients());
+                    pooled.recordSent();
+                    results.add(new MailSendResult(request, null));
+                    retried = false;
+                } catch (SendFailedException e) {
+                    // Recipients rejected; the session itself is still fine. With
+                    // mail.smtp.sendpartial the valid ones were delivered, so do not retry.
+                    if (e.getValidSentAddresses() != null && e.getValidSentAddresses().length > 0) {
+                        pooled.recordSent();
+                        log.warn("Email partially delivered; rejected: {}", Arrays.toString(e.getInvalidAddresses()));
+                        results.add(new MailSendResult(request, null));
+                    } else {
+                        results.add(new MailSendResult(request, new MailSendException("Recipients rejected", e)));
+                    }
+                } catch (MessagingException e) {
+                    this.connectionPool.release(pooled, true);
+                    pooled = null;
+                    if (!retried) {
+                        retried = true;
+                        i--; // Retry this message on a fresh connection
+                    } else {
+                        retried = false;
+                        results.add(new MailSendResult(request, new MailSendException("Failed to send email", e)));
+                    }
+                } catch (MailException e) {
+                    // No connection could be had; fail the rest of the batch fast
+                    for (int j = i; j < emailRequests.size(); j++) {
+                        results.add(new MailSendResult(emailRequests.get(j), e));
+                    }
+                    break;
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                this.connectionPool.release(pooled, false);
+            }
+        }
+        return results;
+    }
+
+    private MimeMessage toMimeMessage(EmailRequest emailRequest) throws MessagingException {
+        if (emailRequest.getTo() == null || emailRequest.getTo().isEmpty()) {
+            throw new IllegalArgumentException("Recipient 'to' list cannot be empty for email.");
+        }
+        MimeMessage message = this.mailSender.createMimeMessage();
+        boolean multipart = emailRequest.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, "UTF-8");
+        helper.setFrom(fromEmail); // Set the 'from' address
+        helper.setTo(emailRequest.getTo().toArray(new String[0]));
         if (emailRequest.getCc() != null && !emailRequest.getCc().isEmpty()) {
-            message.setCc(emailRequest.getCc().toArray(new String[0]));
+            helper.setCc(emailRequest.getCc().toArray(new String[0]));
         }
         if (emailRequest.getBcc() != null && !emailRequest.getBcc().isEmpty()) {
-            message.setBcc(emailRequest.getBcc().toArray(new String[0]));
+            helper.setBcc(emailRequest.getBcc().toArray(new String[0]));
         }
-
-        try {
-            mailSender.send(message);
-            System.out.println("Email sent successfully. To: " + String.join(", ", emailRequest.getTo()) +
-                    (emailRequest.getCc() != null && !emailRequest.getCc().isEmpty()
-                            ? ", CC: " + String.join(", ", emailRequest.getCc())
-                            : "")
-                    +
-                    (emailRequest.getBcc() != null && !emailRequest.getBcc().isEmpty()
-                            ? ", BCC: " + String.join(", ", emailRequest.getBcc())
-                            : ""));
-        } catch (MailException e) {
-            System.err.println("Error sending email: " + Arrays.toString(e.getStackTrace()));
-            throw new RuntimeException("Failed to send email", e);
+        helper.setSubject(emailRequest.getSubject());
+        String text = emailRequest.getBody() != null ? emailRequest.getBody() : "";
+        if (multipart) {
+            helper.setText(text, emailRequest.getHtmlBody()); // multipart/alternative
+        } else {
+            helper.setText(text);
         }
+        message.saveChanges(); // Transport.sendMessage does not do this for us
+        return message;
     }
 
     // In a real-world scenario, you might want to add methods for:
-    // - Sending HTML emails (using MimeMessageHelper)
     // - Sending emails with attachments
-    // - Using templating engines (Thymeleaf, FreeMarker) for rich email content
 }
@@ -0,0 +1,263 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.mailing.dto.MailSendResult;
+import com.standard.commerce_maven.mailing.entity.MailOutboxMessage;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+import com.standard.commerce_maven.mailing.repository.MailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Drains the mail outbox on a small worker pool.
+ *
+ * Each poll claims only as many due messages as the idle workers can take
+ * (SELECT ... FOR UPDATE SKIP LOCKED, so several instances can share the
+ * table), marks them SENDING with a claim timeout and hands each worker a
+ * chunk of up to {@code messages-per-send}, sent over one pooled SMTP
+ * session. Before sending, each message must get tokens from the
+ * {@link SendRateLimiter}; if the sender or a recipient domain is over
+ * budget the message is rescheduled for when a token is due, without
+ * counting as an attempt. A failed send is retried with exponential backoff
+ * and jitter; after {@code max-attempts} the message is dead-lettered (status DEAD) and
+ * kept for inspection.
+ */
+@Component
+public class MailOutboxDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+    private static final List<MailStatus> CLAIMABLE = List.of(MailStatus.PENDING, MailStatus.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final SendRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final Semaphore idleWorkers;
+    private final int batchSize;
+    private final int messagesPerSend;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+
+    public MailOutboxDispatcher(
+            MailOutboxRepository outboxRepository,
+            EmailService emailService,
+            SendRateLimiter rateLimiter,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.mailing.outbox.workers:4}") int workers,
+            @Value("${application.mailing.outbox.batch-size:50}") int batchSize,
+            @Value("${application.mailing.outbox.messages-per-send:10}") int messagesPerSend,
+            @Value("${application.mailing.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${application.mailing.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+            @Value("${application.mailing.outbox.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${application.mailing.outbox.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.rateLimiter = rateLimiter;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idleWorkers = new Semaphore(workers);
+        this.batchSize = batchSize;
+        this.messagesPerSend = messagesPerSend;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.retried").register(meterRegistry);
+        this.dead = Counter.builder("mail.outbox.dead").register(meterRegistry);
+        Gauge.builder("mail.outbox.in-flight", this.idleWorkers, s -> workers - s.availablePermits())
+                .description("Messages currently being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims due messages and hands them to idle workers.
+     */
+    @Scheduled(fixedDelayString = "${application.mailing.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        int idle = this.idleWorkers.availablePermits();
+        int capacity = Math.min(idle * this.messagesPerSend, this.batchSize);
+        if (capacity == 0) {
+            return;
+        }
+        List<ClaimedMessage> claimed = this.transactionTemplate.execute(status -> claim(capacity));
+        if (claimed.isEmpty()) {
+            return;
+        }
+        // Spread the batch over the idle workers; each chunk goes over one SMTP session
+        int chunkSize = Math.min(this.messagesPerSend, (claimed.size() + idle - 1) / idle);
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<ClaimedMessage> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            this.idleWorkers.acquireUninterruptibly();
+            try {
+                this.workers.execute(() -> {
+                    try {
+                        deliver(chunk);
+                    } finally {
+                        this.idleWorkers.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                this.idleWorkers.release(); // The claim lapses and another poll retries it
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A SENDING message is only due again once its claim lapsed, meaning the
+     * worker sending it died or hung. That counts as a failed attempt, so a
+     * message that crashes or stalls the worker is dead-lettered after
+     * {@code max-attempts} like any other failure instead of being resent
+     * forever.
+     */
+    private List<ClaimedMessage> claim(int limit) {
+        Instant now = Instant.now();
+        List<MailOutboxMessage> due = this.outboxRepository.findDueForUpdate(
+                CLAIMABLE, now, PageRequest.of(0, limit));
+        Instant claimExpiresAt = now.plus(this.claimTimeout);
+        List<ClaimedMessage> claimed = new ArrayList<>(due.size());
+        for (MailOutboxMessage message : due) {
+            if (message.getStatus() == MailStatus.SENDING) {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError("Claim lapsed after " + this.claimTimeout + " without a result");
+                if (message.getAttempts() >= this.maxAttempts) {
+                    message.setStatus(MailStatus.DEAD);
+                    message.setNextAttemptAt(now);
+                    this.dead.increment();
+                    log.warn("Mail {} dead-lettered after {} attempt(s): {}", message.getId(),
+                            message.getAttempts(), message.getLastError());
+                    continue;
+                }
+            }
+            message.setStatus(MailStatus.SENDING);
+            message.setNextAttemptAt(claimExpiresAt);
+            claimed.add(new ClaimedMessage(message.getId(), message.getAttempts(), message.toEmailRequest()));
+        }
+        return claimed;
+    }
+
+    private void deliver(List<ClaimedMessage> claimed) {
+        List<ClaimedMessage> messages = new ArrayList<>(claimed.size());
+        for (ClaimedMessage message : claimed) {
+            Duration delay = this.rateLimiter.tryAcquire(recipients(message.request()));
+            if (delay.isZero()) {
+                messages.add(message);
+            } else {
+                // Over budget: try again when a token is due, without using up an attempt
+                this.outboxRepository.defer(message.id(), Instant.now().plus(delay));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<MailSendResult> results;
+        try {
+            results = this.emailService.sendAll(messages.stream().map(ClaimedMessage::request).toList());
+        } catch (RuntimeException e) {
+            results = messages.stream().map(message -> new MailSendResult(message.request(), e)).toList();
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            ClaimedMessage message = messages.get(i);
+            Exception error = results.get(i).error();
+            if (error == null) {
+                this.outboxRepository.markSent(message.id(), Instant.now());
+                this.sent.increment();
+            } else {
+                recordFailure(message, error);
+            }
+        }
+    }
+
+    private void recordFailure(ClaimedMessage message, Exception e) {
+        int attempt = message.attempts() + 1;
+        String error = truncate(rootMessage(e));
+        if (attempt >= this.maxAttempts || isPermanent(e)) {
+            this.outboxRepository.markFailed(message.id(), MailStatus.DEAD, Instant.now(), error);
+            this.dead.increment();
+            log.warn("Mail {} dead-lettered after {} attempt(s): {}", message.id(), attempt, error);
+        } else {
+            this.outboxRepository.markFailed(message.id(), MailStatus.PENDING,
+                    Instant.now().plus(backoff(attempt)), error);
+            this.retried.increment();
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: half the delay is fixed, the other half
+     * random, so retries from one outage do not hit SMTP in lockstep.
+     */
+    Duration backoff(int attempt) {
+        long base = this.initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, this.maxBackoff.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static List<String> recipients(EmailRequest request) {
+        List<String> recipients = new ArrayList<>(request.getTo());
+        recipients.addAll(request.getCc());
+        recipients.addAll(request.getBcc());
+        return recipients;
+    }
+
+    private static boolean isPermanent(Exception e) {
+        return e instanceof IllegalArgumentException || e instanceof MailParseException;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @Override
+    public void destroy() {
+        this.workers.shutdown();
+    }
+
+    private record ClaimedMessage(UUID id, int attempts, EmailRequest request) {
+    }
+}
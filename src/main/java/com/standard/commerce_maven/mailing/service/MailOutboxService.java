@@ -0,0 +1,98 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.mailing.dto.MailJobStatus;
+import com.standard.commerce_maven.mailing.entity.MailOutboxMessage;
+import com.standard.commerce_maven.mailing.repository.MailOutboxRepository;
+
+/**
+ * Queues emails for background delivery. Callers should use this instead of
+ * {@link EmailService#sendEmail(EmailRequest)} on request threads.
+ */
+@Service
+public class MailOutboxService {
+
+    private final MailOutboxRepository outboxRepository;
+    private final MailTemplateRenderer templateRenderer;
+
+    public MailOutboxService(MailOutboxRepository outboxRepository, MailTemplateRenderer templateRenderer) {
+        this.outboxRepository = outboxRepository;
+        this.templateRenderer = templateRenderer;
+    }
+
+    /**
+     * Writes the email to the outbox. Joins the caller's transaction, so the
+     * message is only sent if the surrounding change commits.
+     *
+     * @param emailRequest The email to send.
+     * @return The job ID, usable with {@link #getStatus(UUID)}.
+     * @throws IllegalArgumentException if there are no 'to' recipients.
+     */
+    @Transactional
+    public UUID enqueue(EmailRequest emailRequest) {
+        if (emailRequest.getTo() == null || emailRequest.getTo().isEmpty()) {
+            throw new IllegalArgumentException("Recipient 'to' list cannot be empty for email.");
+        }
+        return this.outboxRepository.save(new MailOutboxMessage(emailRequest)).getId();
+    }
+
+    /**
+     * Renders a template (text + HTML) and queues the result.
+     *
+     * @param templateId Template name, e.g. "password-reset".
+     * @param locale     Locale for the subject and messages.
+     * @param model      Template variables.
+     * @param recipients The 'to' addresses.
+     * @return The job ID.
+     */
+    @Transactional
+    public UUID enqueueTemplated(String templateId, Locale locale, Map<String, Object> model,
+            List<String> recipients) {
+        return enqueue(this.templateRenderer.render(templateId, locale, model).toRequest(recipients));
+    }
+
+    /**
+     * Writes one chunk of campaign messages in a single transaction, the first
+     * due at {@code notBefore} and each later one {@code spacing} after the
+     * previous, which is how the campaign's send rate is enforced.
+     *
+     * @param campaignId The campaign the messages belong to.
+     * @param messages   The messages, each with at least one recipient.
+     * @param notBefore  Earliest send time of the first message.
+     * @param spacing    Delay between consecutive messages.
+     */
+    @Transactional
+    public void enqueueCampaignMessages(UUID campaignId, List<EmailRequest> messages, Instant notBefore,
+            Duration spacing) {
+        List<MailOutboxMessage> rows = new ArrayList<>(messages.size());
+        Instant due = notBefore;
+        for (EmailRequest message : messages) {
+            rows.add(new MailOutboxMessage(message, campaignId, due));
+            due = due.plus(spacing);
+        }
+        this.outboxRepository.saveAll(rows);
+    }
+
+    /**
+     * Looks up the delivery state of a queued email.
+     *
+     * @param id The job ID returned by {@link #enqueue(EmailRequest)}.
+     * @return The status, or empty if no such job exists.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MailJobStatus> getStatus(UUID id) {
+        return this.outboxRepository.findById(id).map(MailJobStatus::from);
+    }
+}
@@ -0,0 +1,78 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.standard.commerce_maven.mailing.dto.RenderedEmail;
+
+/**
+ * Renders mail templates with a Thymeleaf engine of its own.
+ *
+ * A template id such as {@code password-reset} maps to
+ * {@code templates/mail/html/password-reset.html} and
+ * {@code templates/mail/text/password-reset.txt}; the subject is the
+ * {@code password-reset.subject} key of the {@code mail/messages} bundle,
+ * which templates can also use through {@code #{...}}. Parsed templates are
+ * cached by the engine, so a send only pays for evaluating the model.
+ *
+ * The engine is deliberately not a bean: a second ISpringTemplateEngine bean
+ * would switch off Boot's auto-configured one for web views.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private final SpringTemplateEngine templateEngine;
+    private final MessageSource messageSource;
+
+    public MailTemplateRenderer(@Value("${application.mailing.templates.cache:true}") boolean cache) {
+        ResourceBundleMessageSource messages = new ResourceBundleMessageSource();
+        messages.setBasename("mail/messages");
+        messages.setDefaultEncoding("UTF-8");
+        messages.setFallbackToSystemLocale(false);
+        this.messageSource = messages;
+
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.addTemplateResolver(resolver("html/*", ".html", TemplateMode.HTML, cache, 1));
+        this.templateEngine.addTemplateResolver(resolver("text/*", ".txt", TemplateMode.TEXT, cache, 2));
+        this.templateEngine.setTemplateEngineMessageSource(messages);
+    }
+
+    /**
+     * Renders the subject and both body variants of a template.
+     *
+     * @param templateId The template name, e.g. "password-reset".
+     * @param locale     Locale for the subject and any #{...} messages.
+     * @param model      Template variables.
+     * @return The rendered email.
+     */
+    public RenderedEmail render(String templateId, Locale locale, Map<String, Object> model) {
+        Context context = new Context(locale, model);
+        String subject = this.messageSource.getMessage(templateId + ".subject", null, locale);
+        String text = this.templateEngine.process("text/" + templateId, context);
+        String html = this.templateEngine.process("html/" + templateId, context);
+        return new RenderedEmail(subject, text, html);
+    }
+
+    private static ClassLoaderTemplateResolver resolver(String pattern, String suffix, TemplateMode mode,
+            boolean cache, int order) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/mail/");
+        resolver.setSuffix(suffix);
+        resolver.setResolvablePatterns(Set.of(pattern));
+        resolver.setTemplateMode(mode);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cache);
+        resolver.setOrder(order);
+        return resolver;
+    }
+}
@@ -0,0 +1,134 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.standard.commerce_maven.mailing.MailThrottleProperties;
+import com.standard.commerce_maven.mailing.MailThrottleProperties.Limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides whether a message may be sent now, given one token bucket for the
+ * sending account and one per recipient domain.
+ *
+ * A message needs a token from the sender bucket and from the bucket of each
+ * distinct recipient domain. If any bucket is empty the tokens already taken
+ * are returned and the caller gets the delay after which to try again; the
+ * outbox dispatcher reschedules the message for then rather than failing it.
+ *
+ * Buckets for configured domains live forever and get a
+ * {@code mail.throttle.tokens} gauge; other domains share a bounded cache so
+ * arbitrary recipient lists cannot grow memory or metric cardinality.
+ */
+@Component
+@EnableConfigurationProperties(MailThrottleProperties.class)
+public class SendRateLimiter {
+
+    private final MailThrottleProperties properties;
+    private final TokenBucket senderBucket;
+    private final Map<String, TokenBucket> configuredDomains;
+    private final Cache<String, TokenBucket> otherDomains = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+    private final Counter deferredBySender;
+    private final Counter deferredByDomain;
+
+    public SendRateLimiter(MailThrottleProperties properties, MeterRegistry meterRegistry,
+            @Value("${spring.mail.username:}") String senderAccount) {
+        this.properties = properties;
+        long now = System.nanoTime();
+        this.senderBucket = bucket(properties.getSender(), now);
+        Gauge.builder("mail.throttle.tokens", this.senderBucket, b -> b.available(System.nanoTime()))
+                .description("Tokens left in a send-rate bucket")
+                .tag("scope", "sender").tag("key", senderAccount.trim())
+                .register(meterRegistry);
+
+        Map<String, TokenBucket> domains = new HashMap<>();
+        properties.getDomains().forEach((domain, limit) -> {
+            TokenBucket bucket = bucket(limit, now);
+            domains.put(domain.toLowerCase(Locale.ROOT), bucket);
+            Gauge.builder("mail.throttle.tokens", bucket, b -> b.available(System.nanoTime()))
+                    .description("Tokens left in a send-rate bucket")
+                    .tag("scope", "domain").tag("key", domain.toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        });
+        this.configuredDomains = Map.copyOf(domains);
+
+        this.deferredBySender = Counter.builder("mail.throttle.deferred")
+                .description("Messages rescheduled because a send-rate bucket was empty")
+                .tag("scope", "sender").register(meterRegistry);
+        this.deferredByDomain = Counter.builder("mail.throttle.deferred")
+                .description("Messages rescheduled because a send-rate bucket was empty")
+                .tag("scope", "domain").register(meterRegistry);
+    }
+
+    /**
+     * Takes the tokens a message needs, or none of them.
+     *
+     * @param recipients All recipient addresses (to, cc and bcc).
+     * @return {@link Duration#ZERO} if the message may be sent now, otherwise
+     *         how long to defer it.
+     */
+    public Duration tryAcquire(Collection<String> recipients) {
+        if (!this.properties.isEnabled()) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        long wait = this.senderBucket.tryAcquire(now);
+        if (wait > 0) {
+            this.deferredBySender.increment();
+            return Duration.ofNanos(wait);
+        }
+        List<TokenBucket> taken = new ArrayList<>();
+        taken.add(this.senderBucket);
+        for (String domain : domains(recipients)) {
+            TokenBucket bucket = domainBucket(domain, now);
+            wait = bucket.tryAcquire(now);
+            if (wait > 0) {
+                taken.forEach(TokenBucket::refund);
+                this.deferredByDomain.increment();
+                return Duration.ofNanos(wait);
+            }
+            taken.add(bucket);
+        }
+        return Duration.ZERO;
+    }
+
+    private TokenBucket domainBucket(String domain, long now) {
+        TokenBucket configured = this.configuredDomains.get(domain);
+        return configured != null ? configured
+                : this.otherDomains.get(domain, d -> bucket(this.properties.getDomainDefault(), now));
+    }
+
+    private static Set<String> domains(Collection<String> recipients) {
+        Set<String> domains = new LinkedHashSet<>();
+        for (String recipient : recipients) {
+            int at = recipient.lastIndexOf('@');
+            if (at >= 0 && at < recipient.length() - 1) {
+                domains.add(recipient.substring(at + 1).trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return domains;
+    }
+
+    private static TokenBucket bucket(Limit limit, long now) {
+        return new TokenBucket(limit.getRate(), limit.getBurst(), now);
+    }
+}
@@ -0,0 +1,201 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+/**
+ * Bounded pool of connected, authenticated SMTP transports.
+ *
+ * Opening a transport costs a TCP connect, a TLS handshake and an AUTH round
+ * trip; a pooled one is reused for many messages. Idle transports are handed
+ * out most-recently-used first, re-validated with a NOOP once they have been
+ * idle for {@code validate-after}, and closed after {@code max-idle} or once
+ * they have carried {@code max-messages-per-connection} messages (some
+ * servers cap messages per session).
+ */
+@Component
+public class SmtpConnectionPool implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger open = new AtomicInteger();
+    private final long maxIdleNanos;
+    private final long validateAfterNanos;
+    private final int maxMessagesPerConnection;
+    private final Duration borrowTimeout;
+    private final Counter opened;
+    private final Counter evicted;
+
+    public SmtpConnectionPool(
+            JavaMailSenderImpl mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${application.mailing.smtp-pool.max-connections:4}") int maxConnections,
+            @Value("${application.mailing.smtp-pool.max-idle:PT30S}") Duration maxIdle,
+            @Value("${application.mailing.smtp-pool.validate-after:PT5S}") Duration validateAfter,
+            @Value("${application.mailing.smtp-pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${application.mailing.smtp-pool.borrow-timeout:PT10S}") Duration borrowTimeout) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.validateAfterNanos = validateAfter.toNanos();
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.borrowTimeout = borrowTimeout;
+        this.opened = Counter.builder("mail.smtp.connections.opened").register(meterRegistry);
+        this.evicted = Counter.builder("mail.smtp.connections.evicted").register(meterRegistry);
+        Gauge.builder("mail.smtp.connections.open", this.open, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("mail.smtp.connections.idle", this.idle, BlockingDeque::size).register(meterRegistry);
+    }
+
+    /**
+     * Takes a connected transport, opening a new one if none is idle. Must be
+     * handed back with {@link #release(PooledTransport, boolean)}.
+     *
+     * @return A connected transport.
+     * @throws MailSendException if none becomes available within the borrow
+     *                           timeout or the connection cannot be opened.
+     */
+    public PooledTransport borrow() {
+        try {
+            if (!this.permits.tryAcquire(this.borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + this.borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = this.idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a transport to the pool.
+     *
+     * @param pooled The transport from {@link #borrow()}.
+     * @param broken True if the connection failed and must not be reused.
+     */
+    public void release(PooledTransport pooled, boolean broken) {
+        try {
+            if (broken || pooled.messagesSent >= this.maxMessagesPerConnection) {
+                close(pooled);
+            } else {
+                pooled.lastUsedNanos = System.nanoTime();
+                this.idle.offerFirst(pooled);
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle longer than {@code max-idle}.
+     * Oldest idle connections sit at the tail of the deque.
+     */
+    @Scheduled(fixedDelayString = "${application.mailing.smtp-pool.evict-interval:PT10S}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        PooledTransport pooled;
+        while ((pooled = this.idle.peekLast()) != null && now - pooled.lastUsedNanos > this.maxIdleNanos) {
+            if (this.idle.removeLastOccurrence(pooled)) {
+                this.evicted.increment();
+                close(pooled);
+            }
+        }
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        long idleNanos = System.nanoTime() - pooled.lastUsedNanos;
+        if (idleNanos > this.maxIdleNanos) {
+            this.evicted.increment();
+            return false;
+        }
+        // SMTPTransport.isConnected() sends a NOOP, so only pay for it after a pause
+        return idleNanos < this.validateAfterNanos || pooled.transport.isConnected();
+    }
+
+    private PooledTransport connect() {
+        try {
+            String protocol = this.mailSender.getProtocol() != null
+                    ? this.mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+            Transport transport = this.mailSender.getSession().getTransport(protocol);
+            transport.connect(this.mailSender.getHost(), this.mailSender.getPort(),
+                    this.mailSender.getUsername(), this.mailSender.getPassword());
+            this.open.incrementAndGet();
+            this.opened.increment();
+            return new PooledTransport(transport);
+        } catch (MessagingException e) {
+            throw new MailSendException("Could not connect to SMTP server", e);
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        this.open.decrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        List<PooledTransport> remaining = new ArrayList<>();
+        this.idle.drainTo(remaining);
+        remaining.forEach(this::close);
+    }
+
+    /**
+     * A pooled transport plus its bookkeeping.
+     */
+    public static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedNanos = System.nanoTime();
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        void recordSent() {
+            this.messagesSent++;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the
+ * GCRA form of a token bucket): each token moves the time forward by one
+ * interval, and a request is allowed while that time is no more than
+ * {@code burst} intervals ahead of now. One CAS per permit, no locks and no
+ * refill thread.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = this.intervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}.
+     * @return 0 if a token was taken, otherwise nanoseconds until one will be.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = this.theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + this.intervalNanos;
+            long wait = next - nowNanos - this.burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (this.theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(long)} when a later bucket
+     * in the same request refused.
+     */
+    void refund() {
+        this.theoreticalArrival.addAndGet(-this.intervalNanos);
+    }
+
+    /**
+     * Tokens currently available, between 0 and burst.
+     */
+    double available(long nowNanos) {
+        long ahead = Math.max(0, this.theoreticalArrival.get() - nowNanos);
+        return Math.max(0, this.burstNanos - ahead) / (double) this.intervalNanos;
+    }
+}
@@ -15,6 +15,7 @@ public class UserSecurityRules implements SecurityRules {
             .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/users/**").permitAll()
             .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/**").authenticated()
             .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/users/**").authenticated()
+            .requestMatchers(org.springframework.http.HttpMethod.PATCH, "/api/users/**").authenticated()
             .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/users/**").authenticated();
     }
 }
@@ -2,14 +2,39 @@
 package com.standard.commerce_maven.user.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.common.CapacityExceededException;
+import com.standard.commerce_maven.common.ConditionalRequests;
+import com.standard.commerce_maven.common.CountMode;
+import com.standard.commerce_maven.common.GlobalExceptionHandler;
+import com.standard.commerce_maven.common.JsonEnvelope;
+import com.standard.commerce_maven.common.PaginationDto;
+import com.standard.commerce_maven.common.PreconditionFailedException;
 import com.standard.commerce_maven.common.ResponseDto;
 import com.standard.commerce_maven.user.dtos.UserDto;
+import com.standard.commerce_maven.user.dtos.UserImportReport;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.dtos.UserSearchHit;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
 import com.standard.commerce_maven.user.entity.User;
 import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserExportService;
+import com.standard.commerce_maven.user.service.UserExportService.ExportFormat;
+import com.standard.commerce_maven.user.service.UserImportService;
+import com.standard.commerce_maven.user.service.UserImportService.ImportFormat;
+import com.standard.commerce_maven.user.service.UserJsonCache;
+import com.standard.commerce_maven.user.service.UserSearchService;
 import com.standard.commerce_maven.user.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,10 +44,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import io.swagger.v3.oas.annotations.Parameter;
 import java.util.UUID; // Import UUID
 
@@ -35,45 +65,89 @@ import java.util.UUID; // Import UUID
 @Tag(name = "User Management", description = "Operations related to user management")
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserSearchService userSearchService;
+    private final Validator validator;
+    private final UserJsonCache userJsonCache;
+    private final JsonEnvelope userRetrieved;
 
     /**
      * Constructs a UserController with a UserService.
      * Spring will automatically inject the UserService.
      * 
-     * @param userService The service for user business logic.
+     * @param userService       The service for user business logic.
+     * @param userExportService Streams users for export.
+     * @param userImportService Bulk-creates users.
+     * @param userSearchService Searches users by username and email.
+     * @param validator         Validates merge patches.
+     * @param userJsonCache     Serialized users for GET by id.
+     * @param objectMapper      For the pre-serialized response envelope.
      */
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService,
+            UserImportService userImportService, UserSearchService userSearchService, Validator validator,
+            UserJsonCache userJsonCache, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userSearchService = userSearchService;
+        this.validator = validator;
+        this.userJsonCache = userJsonCache;
+        this.userRetrieved = JsonEnvelope.of(objectMapper, 200, "User retrieved successfully");
     }
 
     /**
      * GET /api/users
-     * Retrieves all users.
+     * Retrieves users one page at a time. With {@code cursor} present (empty
+     * for the first page) the page is read by keyset and carries opaque
+     * next/prev cursors; otherwise it is an offset page whose total follows
+     * {@code count}: none, estimate (default, cached) or exact.
      * 
-     * @return A ResponseEntity containing a list of users and HTTP status OK.
+     * @return A ResponseEntity containing a page of users and HTTP status OK.
      */
-    @Operation(summary = "Get all users (paginated)", description = "Retrieves a paginated list of users in the system")
+    @Operation(summary = "Get all users (paginated)", description = "Retrieves a paginated list of users in the system. "
+            + "Pass cursor (empty for the first page, then nextCursor/prevCursor) for keyset pagination, "
+            + "which stays fast on deep pages; page is ignored in that mode. "
+            + "count=none|estimate|exact chooses how offset pages report the total; only exact runs count(*).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved paginated list of users", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or size", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
     })
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(produces = "application/json")
-    public ResponseEntity<ResponseDto<Page<User>>> getAllUsers(
+    public ResponseEntity<ResponseDto<PaginationDto<UserSummary>>> getAllUsers(
         @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(value = "page", required = false, defaultValue = "0") int page,
         @Parameter(description = "Page size", example = "10") @RequestParam(value = "size", required = false, defaultValue = "10") int size,
-        @Parameter(description = "Sort criteria (e.g. username,asc)", example = "username,asc") @RequestParam(value = "sort", required = false) String[] sort
+        @Parameter(description = "Sort criteria (e.g. username,asc)", example = "username,asc") @RequestParam(value = "sort", required = false) String[] sort,
+        @Parameter(description = "Keyset cursor; empty for the first page") @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(description = "Total to report: none, estimate or exact", example = "estimate") @RequestParam(value = "count", required = false, defaultValue = "estimate") String count
     ) {
-        Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sort != null && sort.length > 0 ? sort[0] : "id"));
-        ResponseDto<Page<User>> response = new ResponseDto<>();
+        ResponseDto<PaginationDto<UserSummary>> response = new ResponseDto<>();
         try {
-            Page<User> users = this.userService.getAllUsers(pageable);
+            if (size < 1 || page < 0) {
+                throw new IllegalArgumentException("size must be positive and page must not be negative");
+            }
+            Sort.Order order = sortOrder(sort);
+            PaginationDto<UserSummary> users = cursor != null
+                    ? this.userService.getUsersByCursor(cursor, order, size)
+                    : this.userService.getUsersPage(PageRequest.of(page, size, Sort.by(order)), CountMode.parse(count));
             response.setData(users);
             response.setStatus(200);
             response.setMessage("Users retrieved successfully");
             response.setError(null);
+        } catch (IllegalArgumentException e) {
+            response.setData(null);
+            response.setStatus(400);
+            response.setMessage("Invalid pagination parameters");
+            response.setError(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -83,40 +157,188 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Reads {@code sort=property[,direction]}; defaults to id ascending.
+     */
+    private static Sort.Order sortOrder(String[] sort) {
+        if (sort == null || sort.length == 0 || sort[0].isBlank()) {
+            return Sort.Order.asc("id");
+        }
+        Sort.Direction direction = sort.length > 1 ? Sort.Direction.fromString(sort[1]) : Sort.Direction.ASC;
+        return new Sort.Order(direction, sort[0]);
+    }
+
+    /**
+     * GET /api/users/search
+     * Finds users whose username or email starts with, or closely resembles,
+     * the query. Exact and prefix matches rank above fuzzy ones.
+     *
+     * @param q     Search text (case-insensitive).
+     * @param limit Maximum results.
+     * @return The ranked matches.
+     */
+    @Operation(summary = "Search users", description = "Prefix and typo-tolerant search on username and email, best match first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked matches", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Blank query", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "503", description = "Search timed out", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<ResponseDto<List<UserSearchHit>>> searchUsers(
+        @Parameter(description = "Search text", example = "alice") @RequestParam("q") String q,
+        @Parameter(description = "Maximum results", example = "20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit
+    ) {
+        ResponseDto<List<UserSearchHit>> response = new ResponseDto<>();
+        try {
+            response.setData(this.userSearchService.search(q, limit));
+            response.setStatus(200);
+            response.setMessage("Users retrieved successfully");
+            response.setError(null);
+        } catch (IllegalArgumentException e) {
+            response.setData(null);
+            response.setStatus(400);
+            response.setMessage("Invalid search query");
+            response.setError(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
+        } catch (Exception e) {
+            response.setData(null);
+            response.setStatus(500);
+            response.setMessage("Failed to search users");
+            response.setError(Arrays.toString(e.getStackTrace()));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/users/export
+     * Streams every user as NDJSON (default) or CSV. Rows are written while
+     * they are read from the database, so the export size is not bounded by
+     * memory.
+     *
+     * @param format ndjson or csv.
+     * @return The streamed body, or 400 for an unknown format.
+     */
+    @Operation(summary = "Export all users", description = "Streams all users as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream", content = {
+                    @Content(mediaType = NDJSON), @Content(mediaType = CSV) }),
+            @ApiResponse(responseCode = "400", description = "Unknown format", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    @GetMapping("/export")
+    public ResponseEntity<?> exportUsers(
+        @Parameter(description = "ndjson or csv", example = "ndjson") @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format
+    ) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            ResponseDto<Void> response = new ResponseDto<>(null, 400, "Unknown export format: " + format,
+                    "Invalid export format");
+            return ResponseEntity.badRequest().body(response);
+        }
+        StreamingResponseBody body = out -> this.userExportService.export(out, exportFormat);
+        String extension = exportFormat == ExportFormat.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == ExportFormat.CSV ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + extension + "\"")
+                .body(body);
+    }
+
+    /**
+     * POST /api/users/import
+     * Creates users from an NDJSON or CSV body (username, email, password per
+     * row) in batches. Rows failing validation or clashing with an existing or
+     * earlier row are skipped and reported by line; the rest are imported.
+     *
+     * @param contentType application/x-ndjson or text/csv.
+     * @param body        The rows, read as a stream.
+     * @return The import report.
+     */
+    @Operation(summary = "Import users", description = "Bulk-creates users from NDJSON or CSV (username,email,password). "
+            + "Invalid and duplicate rows are reported per line and skipped.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see imported/rejected counts", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unreadable body", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    @PostMapping(value = "/import", consumes = { NDJSON, CSV }, produces = "application/json")
+    public ResponseEntity<ResponseDto<UserImportReport>> importUsers(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream body
+    ) {
+        ResponseDto<UserImportReport> response = new ResponseDto<>();
+        ImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? ImportFormat.CSV : ImportFormat.NDJSON;
+        try {
+            UserImportReport report = this.userImportService.importUsers(body, format);
+            response.setData(report);
+            response.setStatus(200);
+            response.setMessage("Imported " + report.imported() + " of " + report.rows() + " users");
+            response.setError(null);
+        } catch (IOException e) {
+            response.setData(null);
+            response.setStatus(400);
+            response.setMessage("Could not read import body");
+            response.setError(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.setData(null);
+            response.setStatus(500);
+            response.setMessage("Failed to import users");
+            response.setError(Arrays.toString(e.getStackTrace()));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * GET /api/users/{id}
-     * Retrieves a user by their ID.
+     * Retrieves a user by their ID, with an ETag and Last-Modified. A request
+     * whose If-None-Match/If-Modified-Since still holds gets a 304, answered
+     * from the user's version alone without loading or serializing the user.
+     * Otherwise the user's cached JSON for that version is written inside a
+     * pre-serialized envelope.
      * 
-     * @param id The ID of the user to retrieve.
+     * @param id      The ID of the user to retrieve.
+     * @param request For the conditional request headers.
      * @return A ResponseEntity containing the user and HTTP status OK if found,
      *         or HTTP status NOT_FOUND if not found.
      */
-    @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique ID")
+    @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique ID. "
+            + "Send the returned ETag as If-None-Match to get 304 Not Modified while the user is unchanged.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "User unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
     })
     @ResponseStatus(HttpStatus.OK) // Set response status
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseDto<User>> getUserById(@PathVariable UUID id) { // Changed Long to UUID
-        ResponseDto<User> response = new ResponseDto<>();
+    public ResponseEntity<?> getUserById(@PathVariable UUID id, WebRequest request) { // Changed Long to UUID
+        ResponseDto<UserSummary> response = new ResponseDto<>();
         try {
-            return this.userService.getUserById(id)
-                .map(user -> {
-                    response.setData(user);
-                    response.setStatus(200);
-                    response.setMessage("User retrieved successfully");
-                    response.setError(null);
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    response.setData(null);
-                    response.setStatus(404);
-                    response.setMessage("User not found");
-                    response.setError(null);
-                    return ResponseEntity.ok(response);
-                });
+            Optional<UserVersion> current = this.userService.getUserVersion(id);
+            if (current.isPresent()) {
+                UserVersion version = current.get();
+                ResponseEntity<?> notModified = ConditionalRequests.checkNotModified(request, version.eTag(),
+                        version.lastModified());
+                if (notModified != null) {
+                    return notModified;
+                }
+                // The user's JSON is cached per version; only a miss reads and serializes the user
+                UserJsonCache.Entry user = this.userJsonCache.get(version,
+                        () -> this.userService.getUserSummary(id).orElse(null));
+                if (user != null) {
+                    return ConditionalRequests.ok(user.version().eTag(), user.version().lastModified())
+                            .body(this.userRetrieved.wrap(user.json()));
+                }
+            }
+            response.setData(null);
+            response.setStatus(404);
+            response.setMessage("User not found");
+            response.setError(null);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -141,8 +363,8 @@ public class UserController {
     })
     @ResponseStatus(HttpStatus.CREATED) // Set response status
     @PostMapping(produces = "application/json") // Specify produces type
-    public ResponseEntity<ResponseDto<User>> createUser(@Valid @RequestBody UserDto user) {
-                ResponseDto<User> response = new ResponseDto<>();
+    public ResponseEntity<ResponseDto<UserSummary>> createUser(@Valid @RequestBody UserDto user) {
+                ResponseDto<UserSummary> response = new ResponseDto<>();
                 try {
                         User userEntity = new User();
                         userEntity.setUsername(user.getUsername());
@@ -152,10 +374,12 @@ public class UserController {
                                         : UserType.USER;
                         userEntity.setUserType(userType);
                         User createdUser = this.userService.createUser(userEntity);
-                        response.setData(createdUser);
+                        response.setData(UserSummary.from(createdUser));
                         response.setStatus(201);
                         response.setMessage("User created successfully");
                         response.setError(null);
+                } catch (CapacityExceededException e) {
+                        return GlobalExceptionHandler.serviceUnavailable(e);
                 } catch (Exception e) {
                         response.setData(null);
                         response.setStatus(500);
@@ -169,8 +393,12 @@ public class UserController {
      * PUT /api/users/{id}
      * Updates an existing user.
      * 
+     * With If-Match the update only applies if the user is still at that
+     * ETag; otherwise it fails with 412 Precondition Failed.
+     * 
      * @param id          The ID of the user to update.
      * @param userDetails The User object with updated details (from request body).
+     * @param ifMatch     ETag the client last read, if any.
      * @return A ResponseEntity containing the updated user and HTTP status OK if
      *         found,
      *         or HTTP status NOT_FOUND if not found.
@@ -181,14 +409,16 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Successfully updated user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid user details", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "412", description = "User modified since the If-Match ETag", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
     })
     @ResponseStatus(HttpStatus.OK) // Set response status
     @PutMapping("/{id}")
-    public ResponseEntity<ResponseDto<User>> updateUser(@PathVariable UUID id, @Valid @RequestBody UserDto userDetails) { // Changed
+    public ResponseEntity<ResponseDto<UserSummary>> updateUser(@PathVariable UUID id, @Valid @RequestBody UserDto userDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) { // Changed
                                                                                                              // Long to
         // UUID
-        ResponseDto<User> response = new ResponseDto<>();
+        ResponseDto<UserSummary> response = new ResponseDto<>();
         try {
             User userEntity = new User();
             userEntity.setUsername(userDetails.getUsername());
@@ -198,14 +428,60 @@ public class UserController {
                     ? UserType.valueOf(userDetails.getUserType().toUpperCase())
                     : UserType.USER;
             userEntity.setUserType(userType);
-            return userService.updateUser(id, userEntity)
-                .map(updatedUser -> {
-                    response.setData(updatedUser);
-                    response.setStatus(200);
-                    response.setMessage("User updated successfully");
+            return userService.updateUser(id, userEntity, ifMatch)
+                .map(updatedUser -> updated(updatedUser, response))
+                .orElseGet(() -> {
+                    response.setData(null);
+                    response.setStatus(404);
+                    response.setMessage("User not found");
                     response.setError(null);
                     return ResponseEntity.ok(response);
-                })
+                });
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
+        } catch (PreconditionFailedException e) {
+            return GlobalExceptionHandler.preconditionFailed(e);
+        } catch (OptimisticLockingFailureException e) {
+            return GlobalExceptionHandler.preconditionFailed(new PreconditionFailedException("User " + id + " was modified"));
+        } catch (Exception e) {
+            response.setData(null);
+            response.setStatus(500);
+            response.setMessage("Failed to update user");
+            response.setError(Arrays.toString(e.getStackTrace()));
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * PATCH /api/users/{id}
+     * Applies an RFC 7396 merge patch: only the fields present are changed,
+     * {@code null} removes a field (for userType: back to USER). The password
+     * is only hashed when the patch sets one. If-Match works as for PUT.
+     *
+     * @param id      The ID of the user to update.
+     * @param patch   The merge patch document.
+     * @param ifMatch ETag the client last read, if any.
+     * @return The updated user, or 404 if not found, or 400 if the patch is
+     *         invalid.
+     */
+    @Operation(summary = "Patch user by ID", description = "Applies a JSON merge patch (RFC 7396) to a user. "
+            + "Only the supplied fields (username, email, password, userType) are updated; "
+            + "username, email and password cannot be removed, removing userType resets it to USER.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully updated user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid merge patch", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "412", description = "User modified since the If-Match ETag", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<ResponseDto<UserSummary>> patchUser(@PathVariable UUID id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ResponseDto<UserSummary> response = new ResponseDto<>();
+        try {
+            return this.userService.patchUser(id, UserPatch.from(patch, this.validator), ifMatch)
+                .map(updatedUser -> updated(updatedUser, response))
                 .orElseGet(() -> {
                     response.setData(null);
                     response.setStatus(404);
@@ -213,6 +489,18 @@ public class UserController {
                     response.setError(null);
                     return ResponseEntity.ok(response);
                 });
+        } catch (IllegalArgumentException e) {
+            response.setData(null);
+            response.setStatus(400);
+            response.setMessage("Invalid merge patch");
+            response.setError(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (CapacityExceededException e) {
+            return GlobalExceptionHandler.serviceUnavailable(e);
+        } catch (PreconditionFailedException e) {
+            return GlobalExceptionHandler.preconditionFailed(e);
+        } catch (OptimisticLockingFailureException e) {
+            return GlobalExceptionHandler.preconditionFailed(new PreconditionFailedException("User " + id + " was modified"));
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -224,9 +512,11 @@ public class UserController {
 
     /**
      * DELETE /api/users/{id}
-     * Deletes a user by their ID.
+     * Deletes a user by their ID; with If-Match only if the user is still at
+     * that ETag (412 Precondition Failed otherwise).
      * 
-     * @param id The ID of the user to delete.
+     * @param id      The ID of the user to delete.
+     * @param ifMatch ETag the client last read, if any.
      * @return A ResponseEntity with HTTP status NO_CONTENT if deleted,
      *         or HTTP status NOT_FOUND if not found.
      */
@@ -234,14 +524,16 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully deleted user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "412", description = "User modified since the If-Match ETag", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
     })
     @ResponseStatus(HttpStatus.NO_CONTENT) // Set response status
     @DeleteMapping("/{id}") // Specify the path variable
-    public ResponseEntity<ResponseDto<Void>> deleteUser(@PathVariable UUID id) { // Changed Long to UUID
+    public ResponseEntity<ResponseDto<Void>> deleteUser(@PathVariable UUID id, // Changed Long to UUID
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         ResponseDto<Void> response = new ResponseDto<>();
         try {
-            if (userService.deleteUser(id)) {
+            if (userService.deleteUser(id, ifMatch)) {
                 response.setData(null);
                 response.setStatus(204);
                 response.setMessage("User deleted successfully");
@@ -252,6 +544,10 @@ public class UserController {
                 response.setMessage("User not found");
                 response.setError(null);
             }
+        } catch (PreconditionFailedException e) {
+            return GlobalExceptionHandler.preconditionFailed(e);
+        } catch (OptimisticLockingFailureException e) {
+            return GlobalExceptionHandler.preconditionFailed(new PreconditionFailedException("User " + id + " was modified"));
         } catch (Exception e) {
             response.setData(null);
             response.setStatus(500);
@@ -260,4 +556,14 @@ public class UserController {
         }
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /** The 200 for a write, with the new ETag so the client can chain If-Match. */
+    private static ResponseEntity<ResponseDto<UserSummary>> updated(User user, ResponseDto<UserSummary> response) {
+        response.setData(UserSummary.from(user));
+        response.setStatus(200);
+        response.setMessage("User updated successfully");
+        response.setError(null);
+        UserVersion version = UserVersion.of(user);
+        return ConditionalRequests.ok(version.eTag(), version.lastModified()).body(response);
+    }
+}
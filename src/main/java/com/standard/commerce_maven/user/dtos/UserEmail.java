@@ -0,0 +1,10 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.util.UUID;
+
+/**
+ * Just enough of a user to address an email to them; the id is the keyset
+ * cursor when paging through recipients.
+ */
+public record UserEmail(UUID id, String email) {
+}
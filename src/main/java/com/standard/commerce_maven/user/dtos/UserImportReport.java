@@ -0,0 +1,19 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. {@code errors} lists rejected rows by line
+ * number and may be truncated; {@code rejected} is always the full count.
+ */
+public record UserImportReport(
+        long rows,
+        long imported,
+        long rejected,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<RowError> errors) {
+
+    public record RowError(long line, String message) {
+    }
+}
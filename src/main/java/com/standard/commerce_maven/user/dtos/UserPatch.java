@@ -0,0 +1,94 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.standard.commerce_maven.user.enums.UserType;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * An RFC 7396 merge patch for a user. A null component was not in the patch
+ * and is left as it is. Username, email and password cannot be removed;
+ * removing userType resets it to USER.
+ */
+public record UserPatch(String username, String email, String password, UserType userType) {
+
+    private static final Set<String> FIELDS = Set.of("username", "email", "password", "userType");
+
+    /**
+     * Reads a merge patch document, validating the supplied values with the
+     * same constraints as {@link UserDto}.
+     *
+     * @param patch     The patch document.
+     * @param validator Bean validator for the {@link UserDto} constraints.
+     * @return The patch.
+     * @throws IllegalArgumentException if the document is not an object, names
+     *                                  an unknown field or has invalid values.
+     */
+    public static UserPatch from(JsonNode patch, Validator validator) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch for a user must be a JSON object");
+        }
+        List<String> errors = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext();) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!FIELDS.contains(field.getKey())) {
+                errors.add(field.getKey() + ": unknown field");
+            } else if (!field.getValue().isTextual() && !field.getValue().isNull()) {
+                errors.add(field.getKey() + ": must be a string");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+
+        String username = required(patch, "username", validator, errors);
+        String email = required(patch, "email", validator, errors);
+        String password = required(patch, "password", validator, errors);
+        UserType userType = null;
+        JsonNode type = patch.get("userType");
+        if (type != null) {
+            try {
+                userType = type.isNull() ? UserType.USER : UserType.valueOf(type.asText().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                errors.add("userType: User type must be either USER or ADMIN");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        return new UserPatch(username, email, password, userType);
+    }
+
+    /** @return True if the patch changes nothing. */
+    public boolean isEmpty() {
+        return username == null && email == null && password == null && userType == null;
+    }
+
+    private static String required(JsonNode patch, String field, Validator validator, List<String> errors) {
+        JsonNode value = patch.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (value.isNull()) {
+            errors.add(field + ": cannot be removed");
+            return null;
+        }
+        Set<ConstraintViolation<UserDto>> violations = validator.validateValue(UserDto.class, field, value.asText());
+        if (!violations.isEmpty()) {
+            errors.add(violations.stream()
+                    .map(v -> field + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,18 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.util.UUID;
+
+import com.standard.commerce_maven.user.enums.UserType;
+
+/**
+ * The slice of a user needed to authenticate a request. Cached instead of the
+ * full entity so the password hash and profile columns are never loaded for
+ * authentication.
+ */
+public record UserPrincipalSnapshot(
+        UUID id,
+        String username,
+        UserType userType,
+        boolean emailVerified,
+        int tokenVersion) {
+}
@@ -0,0 +1,9 @@
+package com.standard.commerce_maven.user.dtos;
+
+/**
+ * A user matching a search, with its rank: 1.0 for an exact username or
+ * email match, 0.5 to 1.0 for a prefix match (closer to 1 the more of the
+ * value the query covers), below 0.5 for a fuzzy match.
+ */
+public record UserSearchHit(UserSummary user, double score) {
+}
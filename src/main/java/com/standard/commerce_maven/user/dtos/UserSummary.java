@@ -0,0 +1,27 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+
+/**
+ * What the API shows of a user. Read with a projection query, so list and
+ * lookup endpoints select only these columns, skip the persistence context,
+ * and never serialize the password hash or two-factor secret.
+ */
+public record UserSummary(
+        UUID id,
+        String username,
+        String email,
+        UserType userType,
+        LocalDateTime emailVerifiedAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getUserType(),
+                user.getEmailVerifiedAt(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
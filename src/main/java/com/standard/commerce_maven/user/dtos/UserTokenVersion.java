@@ -0,0 +1,9 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.util.UUID;
+
+/**
+ * Two-column projection used to refresh the token version registry.
+ */
+public record UserTokenVersion(UUID id, int tokenVersion) {
+}
@@ -0,0 +1,57 @@
+package com.standard.commerce_maven.user.dtos;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import com.standard.commerce_maven.user.entity.User;
+
+/**
+ * The validators of a user's representation: a strong ETag and
+ * Last-Modified, both derived from the id and updatedAt. Every write sets
+ * updatedAt, so they change whenever the user does. Read on its own with a
+ * primary key lookup, to answer conditional requests without loading or
+ * serializing the user.
+ */
+public record UserVersion(UUID id, LocalDateTime updatedAt) {
+
+    public static UserVersion of(User user) {
+        return new UserVersion(user.getId(), user.getUpdatedAt());
+    }
+
+    public static UserVersion of(UserSummary user) {
+        return new UserVersion(user.id(), user.updatedAt());
+    }
+
+    /** @return The quoted strong entity tag. */
+    public String eTag() {
+        long micros = this.updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + this.updatedAt.getNano() / 1_000;
+        return "\"" + this.id + "-" + Long.toString(micros, 36) + "\"";
+    }
+
+    /** @return updatedAt in epoch milliseconds, for Last-Modified. */
+    public long lastModified() {
+        Instant instant = this.updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.toEpochMilli();
+    }
+
+    /**
+     * Evaluates an If-Match header with the strong comparison RFC 9110
+     * requires: weak tags never match.
+     *
+     * @param ifMatch The header value; {@code *} matches any current user.
+     * @return True if the header names this version.
+     */
+    public boolean matches(String ifMatch) {
+        String eTag = eTag();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,14 @@
 package com.standard.commerce_maven.user.entity;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.Collections; // Import EnumType
+import java.util.Locale;
 import java.util.Objects; // Import Enumerated
 import java.util.UUID;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -18,17 +21,32 @@ import jakarta.persistence.Enumerated; // Import Collection
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id; // Import Collections
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist; // Import GrantedAuthority
 import jakarta.persistence.PreUpdate; // Import UserDetails
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 /**
  * Represents a User entity in the application.
  * This class maps to a table in the database and implements UserDetails for
  * Spring Security.
+ * Updates are dynamic: an UPDATE only sets the columns that changed, so a
+ * profile edit does not rewrite the password hash or contend on columns it
+ * left alone.
  */
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users", indexes = {
+        // Keyset pagination seeks on (sort key, id); username/email are unique already
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_updated_at_id", columnList = "updated_at, id")
+}, uniqueConstraints = {
+        // Same names as in db/migration, so schema updates do not add duplicates
+        @UniqueConstraint(name = "ux_users_username_normalized", columnNames = "username_normalized"),
+        @UniqueConstraint(name = "ux_users_email_normalized", columnNames = "email_normalized")
+})
 public class User implements UserDetails { // Implemented UserDetails
 
     @Id
@@ -42,6 +60,17 @@ public class User implements UserDetails { // Implemented UserDetails
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Lookup keys: {@link #normalize} of username and email, kept in sync by
+     * the setters. Case-insensitive lookups compare these with plain equality
+     * so they stay index seeks.
+     */
+    @Column(name = "username_normalized", nullable = false)
+    private String usernameNormalized;
+
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String password;
 
@@ -55,6 +84,21 @@ public class User implements UserDetails { // Implemented UserDetails
     @Column(name = "two_factor_secret", nullable = true)
     private String twoFactorSecret;
 
+    /**
+     * Embedded in every issued JWT; bumping it revokes all outstanding tokens.
+     */
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
+    /**
+     * Optimistic lock. Entity saves check and bump it; the repository's
+     * targeted update queries bump it too, so a save based on an older read
+     * fails instead of overwriting their change.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -67,8 +111,8 @@ public class User implements UserDetails { // Implemented UserDetails
 
     public User(String username, String email, String password, UserType userType) {
         this(); // Call default constructor to initialize id
-        this.username = username;
-        this.email = email;
+        setUsername(username);
+        setEmail(email);
         this.password = password;
         this.userType = userType;
     }
@@ -78,7 +122,7 @@ public class User implements UserDetails { // Implemented UserDetails
      */
     @PrePersist
     protected void onCreate() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = now();
         if (this.createdAt == null) this.createdAt = now;
         if (this.updatedAt == null) this.updatedAt = now;
         if (this.userType == null) this.userType = UserType.USER;
@@ -89,7 +133,7 @@ public class User implements UserDetails { // Implemented UserDetails
      */
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now();
         if (this.userType == null) this.userType = UserType.USER;
     }
 
@@ -121,10 +165,12 @@ public class User implements UserDetails { // Implemented UserDetails
 
     public void setUsername(String username) {
         this.username = username;
+        this.usernameNormalized = normalize(username);
     }
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalize(email);
     }
 
     public void setPassword(String password) {
@@ -202,10 +248,42 @@ public class User implements UserDetails { // Implemented UserDetails
                 '}';
     }
 
+    public String getUsernameNormalized() {
+        return this.usernameNormalized;
+    }
+
+    public String getEmailNormalized() {
+        return this.emailNormalized;
+    }
+
+    /**
+     * The case-insensitive form of a username or email: trimmed and lower-cased
+     * (locale-independent). Two users may not share a normalized value.
+     *
+     * @param value A username or email; may be null.
+     * @return The normalized value, or null.
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The current time at the precision the timestamp columns keep
+     * (microseconds), so a saved user's updatedAt, and the ETag derived from
+     * it, equal what is read back from the database.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public boolean isEmailVerified() {
         return this.emailVerifiedAt != null;
     }
 
+    public LocalDateTime getEmailVerifiedAt() {
+        return this.emailVerifiedAt;
+    }
+
     /**
      * Sets the email verification status.
      *
@@ -222,4 +300,25 @@ public class User implements UserDetails { // Implemented UserDetails
     public void setTwoFactorSecret(String twoFactorSecret) {
         this.twoFactorSecret = twoFactorSecret;
     }
+
+    public int getTokenVersion() {
+        return this.tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Invalidates every token issued so far by bumping the token version.
+     *
+     * @return The new token version.
+     */
+    public int revokeTokens() {
+        return ++this.tokenVersion;
+    }
 }
\ No newline at end of file
@@ -1,13 +1,40 @@
 // UserRepository.java - Data Access Layer
 package com.standard.commerce_maven.user.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.standard.commerce_maven.user.dtos.UserEmail;
+import com.standard.commerce_maven.user.dtos.UserPrincipalSnapshot;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserTokenVersion;
+import com.standard.commerce_maven.user.dtos.UserVersion;
 import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
 
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID; // Import UUID
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entities.
@@ -15,9 +42,213 @@ import java.util.UUID; // Import UUID
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> { // Changed Long to UUID
-    // Custom query methods can be added here if needed, e.g., findByUsername,
-    // findByEmail
-    Optional<User> findByUsername(String username);
 
-    Optional<User> findByEmail(String email);
+    /** Rows per JDBC round trip when streaming users. */
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Case-insensitive username lookup: an equality seek on the unique
+     * {@code username_normalized} index. Never compare {@code lower(username)}
+     * in a query; no index covers it.
+     */
+    default Optional<User> findByUsername(String username) {
+        return findByUsernameNormalized(User.normalize(username));
+    }
+
+    /**
+     * Case-insensitive email lookup on the unique {@code email_normalized}
+     * index.
+     */
+    default Optional<User> findByEmail(String email) {
+        return findByEmailNormalized(User.normalize(email));
+    }
+
+    /** @param usernameNormalized An already {@link User#normalize normalized} username. */
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
+
+    /** @param emailNormalized An already {@link User#normalize normalized} email. */
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    @Query("select new com.standard.commerce_maven.user.dtos.UserSummary("
+            + "u.id, u.username, u.email, u.userType, u.emailVerifiedAt, u.createdAt, u.updatedAt) "
+            + "from User u where u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") UUID id);
+
+    /** Just the ETag inputs, for answering conditional requests. */
+    @Query("select new com.standard.commerce_maven.user.dtos.UserVersion(u.id, u.updatedAt) "
+            + "from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("select new com.standard.commerce_maven.user.dtos.UserSummary("
+            + "u.id, u.username, u.email, u.userType, u.emailVerifiedAt, u.createdAt, u.updatedAt) "
+            + "from User u where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Every user in id order, read through a forward-only cursor. Must be
+     * consumed and closed inside a read-only transaction (PostgreSQL only
+     * honours the fetch size with auto-commit off).
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.standard.commerce_maven.user.dtos.UserSummary("
+            + "u.id, u.username, u.email, u.userType, u.emailVerifiedAt, u.createdAt, u.updatedAt) "
+            + "from User u order by u.id")
+    Stream<UserSummary> streamSummaries();
+
+    /**
+     * Offset page of {@link UserSummary} projections, with a count query.
+     */
+    Page<UserSummary> findPageBy(Pageable pageable);
+
+    /**
+     * Offset page without the count query: reads one row past the page to
+     * tell whether there is a next one.
+     */
+    Slice<UserSummary> findSliceBy(Pageable pageable);
+
+    /**
+     * Keyset scroll: the sort is extended with id so every position is unique,
+     * and each window is an index seek from the position, not an OFFSET.
+     */
+    Window<UserSummary> findWindowBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /** Which of the given normalized usernames are already taken. */
+    @Query("select u.usernameNormalized from User u where u.usernameNormalized in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /** Which of the given normalized emails are already taken. */
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.standard.commerce_maven.user.dtos.UserTokenVersion(u.id, u.tokenVersion) from User u")
+    Stream<UserTokenVersion> streamTokenVersions();
+
+    @Query("select new com.standard.commerce_maven.user.dtos.UserPrincipalSnapshot("
+            + "u.id, u.username, u.userType, case when u.emailVerifiedAt is not null then true else false end, u.tokenVersion) "
+            + "from User u where u.id = :id")
+    Optional<UserPrincipalSnapshot> findPrincipalSnapshotById(@Param("id") UUID id);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    /**
+     * One page of recipient addresses, ordered by id. Pass the last id of the
+     * previous page as {@code afterId} (null for the first page); null
+     * filters match every user.
+     */
+    @Query("select new com.standard.commerce_maven.user.dtos.UserEmail(u.id, u.email) from User u "
+            + "where (:afterId is null or u.id > :afterId) "
+            + "and (:userType is null or u.userType = :userType) "
+            + "and (:verifiedOnly = false or u.emailVerifiedAt is not null) "
+            + "order by u.id")
+    List<UserEmail> findEmailPage(@Param("afterId") UUID afterId, @Param("userType") UserType userType,
+            @Param("verifiedOnly") boolean verifiedOnly, Pageable pageable);
+
+    /**
+     * Swaps a password hash for a stronger one, but only if the stored hash is
+     * still the one that was verified (a concurrent password change wins).
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /*
+     * Targeted updates: one UPDATE of the changed columns, updated_at and the
+     * optimistic-lock version, without loading the row. They bypass entity
+     * callbacks, so each sets updated_at (and any normalized column) itself.
+     * Each returns the number of rows updated; 0 means no such user, or for
+     * the versioned variants that the row changed since it was read.
+     */
+
+    /** Sets a new password hash and revokes every outstanding token. */
+    default int updatePassword(UUID id, String passwordHash) {
+        return updatePassword(id, passwordHash, User.now());
+    }
+
+    /**
+     * Like {@link #updatePassword(UUID, String)}, but only if the row is
+     * still at {@code expectedVersion}.
+     */
+    default int updatePasswordIfVersion(UUID id, String passwordHash, long expectedVersion) {
+        return updatePasswordIfVersion(id, passwordHash, expectedVersion, User.now());
+    }
+
+    /**
+     * Like {@link #updatePassword(UUID, String)}, but only while the user's
+     * token version is still {@code tokenVersion}. Used for single-use links:
+     * the UPDATE bumps the version, so the same link cannot match again.
+     */
+    default int updatePasswordIfTokenVersion(UUID id, String passwordHash, int tokenVersion) {
+        return updatePasswordIfTokenVersion(id, passwordHash, tokenVersion, User.now());
+    }
+
+    /** Marks the user's email as verified now. */
+    default int markEmailVerified(UUID id) {
+        return markEmailVerified(id, User.now());
+    }
+
+    /**
+     * Like {@link #markEmailVerified(UUID)}, but only while {@code email} is
+     * the user's current, still unverified address and the token version is
+     * still {@code tokenVersion}. A verification link therefore works once,
+     * and not after an email change, password change or revocation.
+     */
+    default int markEmailVerifiedIfPending(UUID id, String email, int tokenVersion) {
+        return markEmailVerifiedIfPending(id, User.normalize(email), tokenVersion, User.now());
+    }
+
+    /**
+     * Changes the email, clearing its verification, if the row is still at
+     * {@code expectedVersion}. Clears the persistence context, so a user
+     * loaded earlier in the transaction is detached afterwards.
+     */
+    default int updateEmail(UUID id, String email, long expectedVersion) {
+        return updateEmail(id, email, User.normalize(email), expectedVersion, User.now());
+    }
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :hash, u.tokenVersion = u.tokenVersion + 1, "
+            + "u.version = u.version + 1, u.updatedAt = :now where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("hash") String passwordHash, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :hash, u.tokenVersion = u.tokenVersion + 1, "
+            + "u.version = u.version + 1, u.updatedAt = :now where u.id = :id and u.version = :version")
+    int updatePasswordIfVersion(@Param("id") UUID id, @Param("hash") String passwordHash,
+            @Param("version") long expectedVersion, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :hash, u.tokenVersion = u.tokenVersion + 1, "
+            + "u.version = u.version + 1, u.updatedAt = :now where u.id = :id and u.tokenVersion = :tokenVersion")
+    int updatePasswordIfTokenVersion(@Param("id") UUID id, @Param("hash") String passwordHash,
+            @Param("tokenVersion") int tokenVersion, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.emailVerifiedAt = :now, u.version = u.version + 1, u.updatedAt = :now "
+            + "where u.id = :id")
+    int markEmailVerified(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.emailVerifiedAt = :now, u.version = u.version + 1, u.updatedAt = :now "
+            + "where u.id = :id and u.emailNormalized = :emailNormalized and u.emailVerifiedAt is null "
+            + "and u.tokenVersion = :tokenVersion")
+    int markEmailVerifiedIfPending(@Param("id") UUID id, @Param("emailNormalized") String emailNormalized,
+            @Param("tokenVersion") int tokenVersion, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.email = :email, u.emailNormalized = :emailNormalized, u.emailVerifiedAt = null, "
+            + "u.version = u.version + 1, u.updatedAt = :now where u.id = :id and u.version = :version")
+    int updateEmail(@Param("id") UUID id, @Param("email") String email,
+            @Param("emailNormalized") String emailNormalized, @Param("version") long expectedVersion,
+            @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.standard.commerce_maven.user.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.standard.commerce_maven.user.dtos.UserTokenVersion;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * In-memory map of user id to current token version, used by stateless JWT
+ * authentication to reject revoked tokens without loading the user row.
+ *
+ * The bulk of the map is a sorted snapshot of parallel primitive arrays that a
+ * scheduled job rebuilds from the users table. Changes made on this instance
+ * since the last rebuild, and users missing from the snapshot, live in a small
+ * overlay that is checked first. Other instances pick up a revocation on their
+ * next refresh. With stateless principal mode off nothing is recorded, since
+ * nothing would read or prune the overlay.
+ */
+@Service
+public class TokenVersionRegistry {
+
+    private static final int DELETED = -1;
+    /** Bumped by an update that did not read the new version back. */
+    private static final int STALE = -2;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final ConcurrentHashMap<UUID, Entry> recent = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${application.security.jwt.stateless-principal:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether a token version is still the user's current one.
+     *
+     * @param userId       The user the token was issued to.
+     * @param tokenVersion The version embedded in the token.
+     * @return True if the user exists and the version matches.
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        Entry entry = this.recent.get(userId);
+        if (entry == null) {
+            int version = this.snapshot.get(userId);
+            if (version != Snapshot.MISSING) {
+                return version == tokenVersion;
+            }
+        }
+        if (entry == null || entry.version == STALE) {
+            // Not known yet (e.g. registered on another instance since the last refresh) or revoked
+            entry = this.recent.compute(userId, (id, current) -> current != null && current.version != STALE
+                    ? current
+                    : new Entry(this.userRepository.findTokenVersionById(id).orElse(DELETED), System.nanoTime()));
+        }
+        return entry.version != DELETED && entry.version == tokenVersion;
+    }
+
+    /**
+     * Records a version bump made on this instance so it takes effect before
+     * the next refresh.
+     *
+     * @param userId       The user whose tokens were revoked.
+     * @param tokenVersion The new token version.
+     */
+    public void recordVersion(UUID userId, int tokenVersion) {
+        if (!this.enabled) {
+            return; // Nothing reads the overlay, and refresh() would never prune it
+        }
+        this.recent.put(userId, new Entry(tokenVersion, System.nanoTime()));
+    }
+
+    /**
+     * Records a version bump whose new value was not read back, such as a
+     * single-statement password update. The next check for the user reloads
+     * the version; inside a transaction the user is marked again after
+     * commit, so a check in between cannot keep the old version.
+     *
+     * @param userId The user whose tokens were revoked.
+     */
+    public void recordRevoked(UUID userId) {
+        if (!this.enabled) {
+            return;
+        }
+        this.recent.put(userId, new Entry(STALE, System.nanoTime()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(userId, new Entry(STALE, System.nanoTime()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks a deleted user so their outstanding tokens are rejected.
+     *
+     * @param userId The deleted user's ID.
+     */
+    public void recordDeleted(UUID userId) {
+        recordVersion(userId, DELETED);
+    }
+
+    /**
+     * Rebuilds the snapshot from the users table. Only runs when stateless
+     * principal mode is enabled. Reads the primary: a lagging replica would
+     * drop overlay entries for revocations it has not replayed yet.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.token-version-refresh:PT30S}")
+    @Transactional
+    public void refresh() {
+        if (!this.enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        List<UserTokenVersion> rows = new ArrayList<>();
+        try (Stream<UserTokenVersion> stream = this.userRepository.streamTokenVersions()) {
+            stream.forEach(rows::add);
+        }
+        this.snapshot = Snapshot.of(rows);
+        // Keep overlay entries written while the table was being read
+        this.recent.values().removeIf(entry -> entry.recordedAt - startedAt < 0);
+    }
+
+    private record Entry(int version, long recordedAt) {
+    }
+
+    /**
+     * Sorted parallel arrays searched with a binary search; about 20 bytes per
+     * user instead of a boxed map entry.
+     */
+    private static final class Snapshot {
+        static final int MISSING = Integer.MIN_VALUE;
+        static final Snapshot EMPTY = new Snapshot(new long[0], new long[0], new int[0]);
+
+        private final long[] mostSignificant;
+        private final long[] leastSignificant;
+        private final int[] versions;
+
+        private Snapshot(long[] mostSignificant, long[] leastSignificant, int[] versions) {
+            this.mostSignificant = mostSignificant;
+            this.leastSignificant = leastSignificant;
+            this.versions = versions;
+        }
+
+        static Snapshot of(List<UserTokenVersion> rows) {
+            UserTokenVersion[] sorted = rows.toArray(new UserTokenVersion[0]);
+            Arrays.sort(sorted, Comparator.comparing(UserTokenVersion::id));
+            long[] msb = new long[sorted.length];
+            long[] lsb = new long[sorted.length];
+            int[] versions = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                msb[i] = sorted[i].id().getMostSignificantBits();
+                lsb[i] = sorted[i].id().getLeastSignificantBits();
+                versions[i] = sorted[i].tokenVersion();
+            }
+            return new Snapshot(msb, lsb, versions);
+        }
+
+        int get(UUID id) {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            int low = 0;
+            int high = this.versions.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                // Same ordering as UUID.compareTo, which sorted the arrays
+                int cmp = Long.compare(this.mostSignificant[mid], msb);
+                if (cmp == 0) {
+                    cmp = Long.compare(this.leastSignificant[mid], lsb);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return this.versions[mid];
+                }
+            }
+            return MISSING;
+        }
+    }
+}
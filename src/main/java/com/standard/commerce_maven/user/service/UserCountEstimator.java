@@ -0,0 +1,109 @@
+package com.standard.commerce_maven.user.service;
+
+import java.sql.DatabaseMetaData;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Approximate number of users, for listings that want a total without a
+ * {@code count(*)} per request.
+ *
+ * On PostgreSQL the value is read from the planner statistics
+ * ({@code pg_class.reltuples}, kept current by autovacuum/ANALYZE); other
+ * databases fall back to an exact count. Either way it is refreshed on a
+ * schedule, and creates/deletes made through the services adjust it after
+ * commit in between. Published as the {@code users.count.estimate} gauge.
+ */
+@Service
+public class UserCountEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCountEstimator.class);
+
+    private static final long UNKNOWN = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong estimate = new AtomicLong(UNKNOWN);
+    private volatile Boolean postgres;
+
+    public UserCountEstimator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("users.count.estimate", this.estimate, AtomicLong::get)
+                .description("Approximate number of users")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The current estimate; loaded on first use.
+     */
+    public long estimate() {
+        long value = this.estimate.get();
+        return value != UNKNOWN ? value : refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${application.users.count-estimate.refresh:PT1M}")
+    public long refresh() {
+        try {
+            long value = isPostgres() ? statisticsEstimate() : exactCount();
+            this.estimate.set(value);
+            return value;
+        } catch (Exception e) {
+            log.warn("Could not refresh the user count estimate", e);
+            return Math.max(0, this.estimate.get());
+        }
+    }
+
+    /**
+     * Adjusts the estimate once the surrounding transaction commits (or at
+     * once outside a transaction).
+     *
+     * @param delta Users added (positive) or removed (negative).
+     */
+    public void adjust(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private void apply(long delta) {
+        this.estimate.updateAndGet(value -> value == UNKNOWN ? UNKNOWN : Math.max(0, value + delta));
+    }
+
+    private long statisticsEstimate() {
+        // reltuples is -1 (PG 14+) or 0 until the table has been analyzed once
+        Long tuples = this.jdbcTemplate.queryForObject(
+                "select cast(reltuples as bigint) from pg_class where oid = to_regclass('users')", Long.class);
+        return tuples != null && tuples > 0 ? tuples : exactCount();
+    }
+
+    private long exactCount() {
+        Long count = this.jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private boolean isPostgres() throws Exception {
+        if (this.postgres == null) {
+            String product = JdbcUtils.extractDatabaseMetaData(this.jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return this.postgres;
+    }
+}
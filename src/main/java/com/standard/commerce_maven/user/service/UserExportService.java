@@ -0,0 +1,137 @@
+package com.standard.commerce_maven.user.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * Writes every user to an output stream as NDJSON or CSV.
+ *
+ * Rows come from a forward-only cursor ({@link UserRepository#streamSummaries()})
+ * and are written as they arrive, so memory use does not depend on the number
+ * of users. Output is buffered and flushed every {@code flush-every} rows so
+ * the client sees steady progress.
+ */
+@Service
+public class UserExportService {
+
+    /** Supported export formats. */
+    public enum ExportFormat {
+        /** One {@code UserSummary} JSON object per line. */
+        NDJSON,
+        /** RFC 4180 CSV with a header row. */
+        CSV
+    }
+
+    private static final String CSV_HEADER = "id,username,email,userType,emailVerifiedAt,createdAt,updatedAt\r\n";
+
+    private final UserRepository userRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final int flushEvery;
+
+    public UserExportService(
+            UserRepository userRepository,
+            ObjectMapper objectMapper,
+            @Value("${application.users.export.flush-every:1000}") int flushEvery) {
+        this.userRepository = userRepository;
+        this.ndjsonWriter = objectMapper.writerFor(UserSummary.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    /**
+     * Streams all users to {@code out}. Does not close {@code out}.
+     *
+     * @param out    Destination, typically the HTTP response body.
+     * @param format Output format.
+     * @return The number of users written.
+     * @throws IOException if writing fails, e.g. the client disconnected.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, ExportFormat format) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        try (Stream<UserSummary> users = this.userRepository.streamSummaries()) {
+            long rows = format == ExportFormat.CSV
+                    ? writeCsv(users.iterator(), buffered)
+                    : writeNdjson(users.iterator(), buffered);
+            buffered.flush();
+            return rows;
+        }
+    }
+
+    private long writeNdjson(Iterator<UserSummary> users, OutputStream out) throws IOException {
+        long rows = 0;
+        try (SequenceWriter sequence = this.ndjsonWriter.writeValues(out)) {
+            while (users.hasNext()) {
+                sequence.write(users.next());
+                if (++rows % this.flushEvery == 0) {
+                    sequence.flush();
+                }
+            }
+        }
+        if (rows > 0) {
+            out.write('\n');
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<UserSummary> users, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        long rows = 0;
+        StringBuilder line = new StringBuilder(160);
+        while (users.hasNext()) {
+            UserSummary user = users.next();
+            line.setLength(0);
+            line.append(user.id()).append(',');
+            appendCsv(line, user.username()).append(',');
+            appendCsv(line, user.email()).append(',');
+            line.append(user.userType() != null ? user.userType().name() : "").append(',');
+            appendTime(line, user.emailVerifiedAt()).append(',');
+            appendTime(line, user.createdAt()).append(',');
+            appendTime(line, user.updatedAt()).append("\r\n");
+            writer.append(line);
+            if (++rows % this.flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static StringBuilder appendTime(StringBuilder line, LocalDateTime value) {
+        return value != null ? line.append(value) : line;
+    }
+}
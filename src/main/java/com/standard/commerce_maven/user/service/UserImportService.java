@@ -0,0 +1,437 @@
+package com.standard.commerce_maven.user.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.user.dtos.UserDto;
+import com.standard.commerce_maven.user.dtos.UserImportReport;
+import com.standard.commerce_maven.user.dtos.UserImportReport.RowError;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Creates users in bulk from a streamed NDJSON or CSV body.
+ *
+ * Rows are read in chunks of {@code batch-size}. Each chunk is validated with
+ * the same rules as {@code POST /api/users}, checked for usernames/emails
+ * already taken (in the database or earlier in the file), hashed in parallel
+ * and written in one transaction: with PostgreSQL's COPY protocol, elsewhere
+ * with Hibernate JDBC batching. Bad rows are reported by line and skipped;
+ * they never abort the import. If a chunk still hits a unique constraint
+ * (a concurrent signup), it is retried row by row.
+ *
+ * Hashing runs on its own pool of {@code hashing-threads} (default: half the
+ * cores) with a short queue and caller-runs back-pressure, so an import
+ * cannot starve login hashing of CPU or queue space.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    /** Supported import formats. */
+    public enum ImportFormat {
+        /** One JSON object per line: {@code {"username", "email", "password"}}. */
+        NDJSON,
+        /** Columns username,email,password; a header row is skipped. */
+        CSV
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String COPY_SQL = "COPY users (id, username, email, username_normalized, email_normalized, "
+            + "password, user_type, token_version, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCountEstimator countEstimator;
+    private final UserSearchService searchService;
+    private final ThreadPoolExecutor hashingPool;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private volatile Boolean postgres;
+
+    public UserImportService(
+            UserRepository userRepository,
+            @Qualifier("hashingPasswordEncoder") PasswordEncoder passwordEncoder,
+            Validator validator,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            UserCountEstimator countEstimator,
+            UserSearchService searchService,
+            @Value("${application.users.import.batch-size:500}") int batchSize,
+            @Value("${application.users.import.hashing-threads:0}") int hashingThreads,
+            @Value("${application.users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.countEstimator = countEstimator;
+        this.searchService = searchService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = maxReportedErrors;
+        int threads = hashingThreads > 0 ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingPool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Imports every row of the stream.
+     *
+     * @param rows   The NDJSON or CSV body.
+     * @param format Format of the body.
+     * @return Counts, throughput and per-row errors.
+     * @throws IOException if the stream cannot be read.
+     */
+    public UserImportReport importUsers(InputStream rows, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(this.batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(rows, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (lineNumber == 1 && format == ImportFormat.CSV && line.trim().toLowerCase().startsWith("username,")) {
+                    continue; // Header row
+                }
+                progress.rows++;
+                Row row = format == ImportFormat.NDJSON ? fromNdjson(lineNumber, line) : fromCsv(lineNumber, line);
+                if (row.error != null) {
+                    progress.reject(row.line, row.error, this.maxReportedErrors);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == this.batchSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        double rowsPerSecond = progress.imported * 1e9 / elapsedNanos;
+        log.info("Imported {} of {} users in {} ms ({} rows/s), {} rejected", progress.imported, progress.rows,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond), progress.rejected);
+        return new UserImportReport(progress.rows, progress.imported, progress.rejected,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, progress.errors);
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) {
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        Map<String, Long> usernames = new HashMap<>();
+        Map<String, Long> emails = new HashMap<>();
+        for (Row row : chunk) {
+            Set<ConstraintViolation<UserDto>> violations = this.validator.validate(row.dto);
+            if (!violations.isEmpty()) {
+                progress.reject(row.line, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")), this.maxReportedErrors);
+            } else if (usernames.putIfAbsent(User.normalize(row.dto.getUsername()), row.line) != null) {
+                progress.reject(row.line, "Duplicate username in import (line "
+                        + usernames.get(User.normalize(row.dto.getUsername())) + ")", this.maxReportedErrors);
+            } else if (emails.putIfAbsent(User.normalize(row.dto.getEmail()), row.line) != null) {
+                progress.reject(row.line, "Duplicate email in import (line "
+                        + emails.get(User.normalize(row.dto.getEmail())) + ")", this.maxReportedErrors);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Earlier chunks are committed, so this also catches duplicates across chunks
+        Set<String> takenUsernames = new HashSet<>(this.userRepository.findExistingUsernames(
+                accepted.stream().map(row -> User.normalize(row.dto.getUsername())).toList()));
+        Set<String> takenEmails = new HashSet<>(this.userRepository.findExistingEmails(
+                accepted.stream().map(row -> User.normalize(row.dto.getEmail())).toList()));
+        List<Row> fresh = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            if (takenUsernames.contains(User.normalize(row.dto.getUsername()))) {
+                progress.reject(row.line, "Username already exists", this.maxReportedErrors);
+            } else if (takenEmails.contains(User.normalize(row.dto.getEmail()))) {
+                progress.reject(row.line, "Email already exists", this.maxReportedErrors);
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<User>> hashing = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> toUser(row), this.hashingPool))
+                .toList();
+        List<User> users = hashing.stream().map(CompletableFuture::join).toList();
+
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> insert(users));
+            progress.imported += users.size();
+            this.countEstimator.adjust(users.size());
+            users.forEach(this.searchService::indexed);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert hit a constraint, retrying {} rows one by one", users.size(), e);
+            for (int i = 0; i < users.size(); i++) {
+                // The rolled-back attempt left ids and versions on the originals
+                User user = unsaved(users.get(i));
+                try {
+                    this.transactionTemplate.executeWithoutResult(status -> insert(List.of(user)));
+                    progress.imported++;
+                    this.countEstimator.adjust(1);
+                    this.searchService.indexed(user);
+                } catch (DataIntegrityViolationException rowError) {
+                    progress.reject(fresh.get(i).line, "Username or email already exists", this.maxReportedErrors);
+                }
+            }
+        }
+    }
+
+    private User toUser(Row row) {
+        return new User(row.dto.getUsername(), row.dto.getEmail(),
+                this.passwordEncoder.encode(row.dto.getPassword()), UserType.USER);
+    }
+
+    /** A not yet persisted copy of a user, keeping the computed hash. */
+    private static User unsaved(User user) {
+        return new User(user.getUsername(), user.getEmail(), user.getPassword(), user.getUserType());
+    }
+
+    /**
+     * Must run inside a transaction. A unique constraint violation surfaces as
+     * {@link DataIntegrityViolationException} on both paths.
+     */
+    private void insert(List<User> users) {
+        if (isPostgres()) {
+            copy(users);
+            return;
+        }
+        // hibernate.jdbc.batch_size turns these into batched INSERTs on flush.
+        // Through the repository, so the flush's exceptions are translated.
+        this.userRepository.saveAll(users);
+        this.userRepository.flush();
+        this.entityManager.clear();
+    }
+
+    private void copy(List<User> users) {
+        StringBuilder csv = new StringBuilder(users.size() * 160);
+        for (User user : users) {
+            user.setId(UUID.randomUUID());
+            csv.append(user.getId()).append(',');
+            appendCsv(csv, user.getUsername()).append(',');
+            appendCsv(csv, user.getEmail()).append(',');
+            appendCsv(csv, user.getUsernameNormalized()).append(',');
+            appendCsv(csv, user.getEmailNormalized()).append(',');
+            appendCsv(csv, user.getPassword()).append(',');
+            csv.append(user.getUserType().name()).append(',')
+                    .append(user.getTokenVersion()).append(',')
+                    .append(user.getCreatedAt()).append(',')
+                    .append(user.getCreatedAt()).append('\n');
+        }
+        Connection connection = DataSourceUtils.getConnection(this.dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (SQLException e) {
+            // 23505 unique_violation: let the caller fall back to row-by-row inserts
+            if ("23505".equals(e.getSQLState())) {
+                throw new DataIntegrityViolationException("COPY hit a unique constraint", e);
+            }
+            throw new IllegalStateException("COPY into users failed", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("COPY into users failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, this.dataSource);
+        }
+    }
+
+    private boolean isPostgres() {
+        if (this.postgres == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(this.dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (Exception e) {
+                this.postgres = false;
+            }
+        }
+        return this.postgres;
+    }
+
+    private Row fromNdjson(long line, String text) {
+        try {
+            JsonNode node = this.objectMapper.readTree(text);
+            if (!node.isObject()) {
+                return Row.invalid(line, "Expected a JSON object");
+            }
+            return Row.of(line, textOf(node, "username"), textOf(node, "email"), textOf(node, "password"));
+        } catch (JsonProcessingException e) {
+            return Row.invalid(line, "Malformed JSON");
+        }
+    }
+
+    private static String textOf(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    private static Row fromCsv(long line, String text) {
+        List<String> fields = splitCsv(text);
+        if (fields == null) {
+            return Row.invalid(line, "Malformed CSV");
+        }
+        if (fields.size() < 3) {
+            return Row.invalid(line, "Expected username,email,password");
+        }
+        return Row.of(line, fields.get(0).trim(), fields.get(1).trim(), fields.get(2));
+    }
+
+    /**
+     * Splits one RFC 4180 record; quoted fields may contain commas and
+     * doubled quotes. Returns null for an unterminated quote.
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    @Override
+    public void destroy() {
+        this.hashingPool.shutdownNow();
+    }
+
+    private static final class Row {
+        private final long line;
+        private final UserDto dto;
+        private final String error;
+
+        private Row(long line, UserDto dto, String error) {
+            this.line = line;
+            this.dto = dto;
+            this.error = error;
+        }
+
+        static Row of(long line, String username, String email, String password) {
+            UserDto dto = new UserDto();
+            dto.setUsername(username);
+            dto.setEmail(email);
+            dto.setPassword(password);
+            return new Row(line, dto, null);
+        }
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    private static final class Progress {
+        private long rows;
+        private long imported;
+        private long rejected;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message, int maxReported) {
+            this.rejected++;
+            if (this.errors.size() < maxReported) {
+                this.errors.add(new RowError(line, message));
+            }
+        }
+    }
+}
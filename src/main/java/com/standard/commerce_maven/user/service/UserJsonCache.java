@@ -0,0 +1,109 @@
+package com.standard.commerce_maven.user.service;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The serialized UTF-8 JSON of each user's {@link UserSummary}, keyed by id
+ * and tagged with the {@link UserVersion} it was serialized from, so hot
+ * users are written without running Jackson.
+ *
+ * An entry is only served for the version the caller just read, so writes
+ * that bypass {@link #invalidate(UUID)} (targeted updates, other instances)
+ * never serve stale bytes; {@link UserService} mutations still invalidate so
+ * changed users do not hold memory. Hit, miss and eviction counts are
+ * published as the {@code cache.*{cache=userJson}} metrics.
+ */
+@Service
+public class UserJsonCache {
+
+    /**
+     * @param version What the JSON was serialized from; its ETag describes
+     *                the bytes.
+     * @param json    The serialized summary. Shared: never modify it.
+     */
+    public record Entry(UserVersion version, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, Entry> cache;
+
+    public UserJsonCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.users.json-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.users.json-cache.expire-after-access:PT10M}") Duration expireAfterAccess) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "userJson");
+    }
+
+    /**
+     * Returns the user's JSON at {@code current}, serializing what
+     * {@code loader} returns on a miss.
+     *
+     * @param current The user's version, as just read.
+     * @param loader  Reads the summary; may return null if the user is gone.
+     * @return The JSON, or null if the loader found no user.
+     */
+    public Entry get(UserVersion current, Supplier<UserSummary> loader) {
+        Entry cached = this.cache.getIfPresent(current.id());
+        if (cached != null && cached.version().equals(current)) {
+            return cached;
+        }
+        UserSummary user = loader.get();
+        if (user == null) {
+            return null;
+        }
+        Entry entry = new Entry(UserVersion.of(user), serialize(user));
+        this.cache.put(user.id(), entry);
+        return entry;
+    }
+
+    /**
+     * Drops a user's JSON now and, when called inside a transaction, again
+     * after it commits.
+     *
+     * @param userId The user that changed.
+     */
+    public void invalidate(UUID userId) {
+        this.cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private byte[] serialize(UserSummary user) {
+        try {
+            return this.objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.standard.commerce_maven.user.service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.standard.commerce_maven.user.dtos.UserPrincipalSnapshot;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and time-bounded cache of {@link UserPrincipalSnapshot}s used by JWT
+ * authentication.
+ *
+ * Concurrent misses for the same id share a single load. Every user mutation
+ * must call {@link #invalidate(UUID)}; inside a transaction the entry is
+ * dropped again after commit so a concurrent miss cannot re-cache the old
+ * row. Loads run outside a read-only transaction, so with read replicas they
+ * still hit the primary and never cache a row a replica has not caught up
+ * on. Hit, miss and eviction counts are published as the
+ * {@code cache.*{cache=userPrincipals}} metrics.
+ */
+@Service
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, UserPrincipalSnapshot> cache;
+
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.users.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.users.principal-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "userPrincipals");
+    }
+
+    /**
+     * Returns the snapshot for a user, loading it on a miss.
+     *
+     * @param userId The user's ID.
+     * @return The snapshot, or null if the user does not exist.
+     */
+    public UserPrincipalSnapshot get(UUID userId) {
+        return this.cache.get(userId, id -> this.userRepository.findPrincipalSnapshotById(id).orElse(null));
+    }
+
+    /**
+     * Drops a user's snapshot now and, when called inside a transaction, again
+     * after it commits.
+     *
+     * @param userId The user that changed.
+     */
+    public void invalidate(UUID userId) {
+        this.cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.standard.commerce_maven.user.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over normalized usernames and emails, used where
+ * the database has no trigram support (H2, tests). Mirrors the PostgreSQL
+ * search: a sorted key map answers prefix queries, and per-field trigram
+ * posting lists (words padded like pg_trgm) answer fuzzy ones.
+ *
+ * Scores match the SQL: a prefix hit scores 0.5 + 0.5 * |query| / |value|
+ * (1.0 for an exact match), otherwise 0.5 * trigram similarity, best of
+ * username and email.
+ *
+ * Fuzzy candidates come only from the rarest posting lists that can still
+ * reach the similarity threshold, and at most maxCandidates of them are
+ * scored, so a query's cost does not grow with the number of users. Entries
+ * keep only trigram counts; shared trigrams are counted from the postings.
+ */
+final class UserSearchIndex {
+
+    /** A ranked match. */
+    record Hit(UUID id, String username, double score) {
+    }
+
+    private record Entry(String username, String email, int usernameTrigrams, int emailTrigrams) {
+    }
+
+    private final double threshold;
+    private final int maxCandidates;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, Set<UUID>> keys = new TreeMap<>();
+    private final Map<String, Set<UUID>> usernamePostings = new HashMap<>();
+    private final Map<String, Set<UUID>> emailPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    UserSearchIndex(double threshold, int maxCandidates) {
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Adds a user or replaces its previous values.
+     *
+     * @param username Normalized username.
+     * @param email    Normalized email.
+     */
+    void put(UUID id, String username, String email) {
+        Set<String> usernameTrigrams = trigrams(username);
+        Set<String> emailTrigrams = trigrams(email);
+        this.lock.writeLock().lock();
+        try {
+            unlink(id, this.entries.put(id,
+                    new Entry(username, email, usernameTrigrams.size(), emailTrigrams.size())));
+            link(this.keys, username, id);
+            link(this.keys, email, id);
+            for (String trigram : usernameTrigrams) {
+                link(this.usernamePostings, trigram, id);
+            }
+            for (String trigram : emailTrigrams) {
+                link(this.emailPostings, trigram, id);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        this.lock.writeLock().lock();
+        try {
+            unlink(id, this.entries.remove(id));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.entries.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param query Normalized search text.
+     * @param limit Maximum hits.
+     * @return Hits by descending score, then username.
+     */
+    List<Hit> search(String query, int limit) {
+        Set<String> queryTrigrams = trigrams(query);
+        Map<UUID, Hit> hits = new HashMap<>();
+        this.lock.readLock().lock();
+        try {
+            // Prefix matches: every key in [query, query + MAX_VALUE)
+            int seen = 0;
+            for (Set<UUID> ids : this.keys.subMap(query, true, query + Character.MAX_VALUE, false).values()) {
+                for (UUID id : ids) {
+                    hits.computeIfAbsent(id, key -> score(key, query, queryTrigrams));
+                }
+                if (++seen >= this.maxCandidates) {
+                    break;
+                }
+            }
+            // Fuzzy matches score below 0.5, under every prefix match, so
+            // they are only needed when prefixes do not fill the page
+            if (hits.size() < limit && !queryTrigrams.isEmpty()) {
+                int budget = this.maxCandidates;
+                for (Set<UUID> list : rarestLists(queryTrigrams)) {
+                    for (UUID id : list) {
+                        if (!hits.containsKey(id)) {
+                            hits.put(id, score(id, query, queryTrigrams));
+                            if (--budget == 0) {
+                                break;
+                            }
+                        }
+                    }
+                    if (budget == 0) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return hits.values().stream()
+                .filter(hit -> hit.score >= 0.5 * this.threshold)
+                .sorted(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::username))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * A value reaching the threshold shares at least ceil(threshold * |Q|)
+     * trigrams with the query, so it is in one of that field's
+     * |Q| - ceil(threshold * |Q|) + 1 rarest posting lists. Caller holds the
+     * read lock.
+     */
+    private List<Set<UUID>> rarestLists(Set<String> queryTrigrams) {
+        int probe = queryTrigrams.size() - Math.max(1, (int) Math.ceil(this.threshold * queryTrigrams.size())) + 1;
+        List<Set<UUID>> lists = new ArrayList<>(2 * probe);
+        for (Map<String, Set<UUID>> postings : List.of(this.usernamePostings, this.emailPostings)) {
+            List<Set<UUID>> field = new ArrayList<>(queryTrigrams.size());
+            for (String trigram : queryTrigrams) {
+                field.add(postings.getOrDefault(trigram, Set.of()));
+            }
+            field.sort(Comparator.comparingInt(Set::size));
+            lists.addAll(field.subList(0, probe));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        return lists;
+    }
+
+    /** Caller holds the read lock. */
+    private Hit score(UUID id, String query, Set<String> queryTrigrams) {
+        Entry entry = this.entries.get(id);
+        double score = Math.max(
+                score(id, entry.username, entry.usernameTrigrams, this.usernamePostings, query, queryTrigrams),
+                score(id, entry.email, entry.emailTrigrams, this.emailPostings, query, queryTrigrams));
+        return new Hit(id, entry.username, score);
+    }
+
+    private static double score(UUID id, String value, int valueTrigrams, Map<String, Set<UUID>> postings,
+            String query, Set<String> queryTrigrams) {
+        if (value.startsWith(query)) {
+            return 0.5 + 0.5 * query.length() / value.length();
+        }
+        int shared = 0;
+        for (String trigram : queryTrigrams) {
+            Set<UUID> ids = postings.get(trigram);
+            if (ids != null && ids.contains(id)) {
+                shared++;
+            }
+        }
+        return 0.5 * similarity(shared, valueTrigrams, queryTrigrams.size());
+    }
+
+    /** pg_trgm similarity: shared trigrams over distinct trigrams of both. */
+    static double similarity(int shared, int a, int b) {
+        return a == 0 || b == 0 ? 0 : (double) shared / (a + b - shared);
+    }
+
+    /**
+     * Trigrams as pg_trgm extracts them: per alphanumeric word, padded with
+     * two spaces in front and one behind.
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /** Caller holds the write lock. */
+    private void unlink(UUID id, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        unlink(this.keys, entry.username, id);
+        unlink(this.keys, entry.email, id);
+        for (String trigram : trigrams(entry.username)) {
+            unlink(this.usernamePostings, trigram, id);
+        }
+        for (String trigram : trigrams(entry.email)) {
+            unlink(this.emailPostings, trigram, id);
+        }
+    }
+
+    private static void link(Map<String, Set<UUID>> map, String key, UUID id) {
+        map.computeIfAbsent(key, k -> new HashSet<>(2)).add(id);
+    }
+
+    private static void unlink(Map<String, Set<UUID>> map, String key, UUID id) {
+        Set<UUID> ids = map.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            map.remove(key);
+        }
+    }
+}
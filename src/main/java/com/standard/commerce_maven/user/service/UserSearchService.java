@@ -0,0 +1,251 @@
+package com.standard.commerce_maven.user.service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.standard.commerce_maven.common.CapacityExceededException;
+import com.standard.commerce_maven.user.dtos.UserSearchHit;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * Prefix and typo-tolerant search over usernames and emails.
+ *
+ * On PostgreSQL the query runs against the normalized columns, served by the
+ * text_pattern_ops (prefix) and pg_trgm GIN (fuzzy) indexes from
+ * db/migration, under a per-statement timeout. Elsewhere an in-memory
+ * {@link UserSearchIndex} is built on first use, updated after commit by the
+ * services that create, rename or delete users, and rebuilt on a schedule to
+ * pick up changes made by other instances.
+ *
+ * Either way the search yields ranked ids; the summaries are then read by
+ * primary key, so results always show current data.
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    // ~>=~ / ~<~ are the text_pattern_ops comparisons: a byte-wise prefix
+    // range that, unlike LIKE, stays indexable with a bound parameter
+    private static final String PREFIX_USERNAME = "(username_normalized ~>=~ :q and username_normalized ~<~ :upper)";
+    private static final String PREFIX_EMAIL = "(email_normalized ~>=~ :q and email_normalized ~<~ :upper)";
+    private static final String SEARCH_SQL = "select id, score from ("
+            + " select id, username_normalized, greatest("
+            + "  case when " + PREFIX_USERNAME
+            + "   then 0.5 + 0.5 * char_length(:q) / cast(char_length(username_normalized) as float8)"
+            + "   else 0.5 * similarity(username_normalized, :q) end,"
+            + "  case when " + PREFIX_EMAIL
+            + "   then 0.5 + 0.5 * char_length(:q) / cast(char_length(email_normalized) as float8)"
+            + "   else 0.5 * similarity(email_normalized, :q) end) as score"
+            + " from users"
+            + " where " + PREFIX_USERNAME + " or " + PREFIX_EMAIL
+            + "  or username_normalized % :q or email_normalized % :q"
+            + ") hits order by score desc, username_normalized limit :limit";
+
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+    private final double threshold;
+    private final int maxCandidates;
+    private final int maxResults;
+    private volatile Boolean postgres;
+    private volatile UserSearchIndex index;
+
+    public UserSearchService(
+            UserRepository userRepository,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.users.search.timeout:PT0.5S}") Duration timeout,
+            @Value("${application.users.search.similarity-threshold:0.3}") double threshold,
+            @Value("${application.users.search.max-candidates:2000}") int maxCandidates,
+            @Value("${application.users.search.max-results:50}") int maxResults) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeout = timeout;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @param query Search text; matched case-insensitively.
+     * @param limit Maximum results, capped at max-results.
+     * @return Matching users, best first.
+     * @throws IllegalArgumentException   if the query is blank.
+     * @throws CapacityExceededException if the database search timed out.
+     */
+    @Transactional(readOnly = true)
+    public List<UserSearchHit> search(String query, int limit) {
+        String normalized = User.normalize(query);
+        if (normalized == null || normalized.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int bounded = Math.max(1, Math.min(limit, this.maxResults));
+        Map<UUID, Double> scores = isPostgres()
+                ? searchDatabase(normalized, bounded)
+                : index().search(normalized, bounded).stream()
+                        .collect(Collectors.toMap(UserSearchIndex.Hit::id, UserSearchIndex.Hit::score));
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        // Users deleted since the index last saw them drop out here
+        Map<UUID, UserSummary> summaries = this.userRepository.findSummariesByIdIn(scores.keySet()).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        return scores.entrySet().stream()
+                .filter(score -> summaries.containsKey(score.getKey()))
+                .map(score -> new UserSearchHit(summaries.get(score.getKey()), score.getValue()))
+                .sorted((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score())
+                        : a.user().username().compareToIgnoreCase(b.user().username()))
+                .toList();
+    }
+
+    private Map<UUID, Double> searchDatabase(String query, int limit) {
+        String upper = query.substring(0, query.length() - 1) + (char) (query.charAt(query.length() - 1) + 1);
+        // Both settings are local to the surrounding read-only transaction
+        this.jdbcTemplate.queryForList("select set_config('statement_timeout', :timeout, true), "
+                + "set_config('pg_trgm.similarity_threshold', :threshold, true)",
+                new MapSqlParameterSource()
+                        .addValue("timeout", String.valueOf(this.timeout.toMillis()))
+                        .addValue("threshold", String.valueOf(this.threshold)));
+        try {
+            return this.jdbcTemplate.query(SEARCH_SQL,
+                    new MapSqlParameterSource().addValue("q", query).addValue("upper", upper).addValue("limit", limit),
+                    (rows, rowNum) -> Map.entry(rows.getObject("id", UUID.class), rows.getDouble("score")))
+                    .stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        } catch (DataAccessException e) {
+            // 57014: canceled by statement_timeout
+            if (e instanceof QueryTimeoutException
+                    || e.getMostSpecificCause() instanceof SQLException sql && "57014".equals(sql.getSQLState())) {
+                throw new CapacityExceededException("User search timed out", Duration.ofSeconds(1));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records a created or renamed user once the transaction commits. Only
+     * needed without PostgreSQL, where the index lives in memory.
+     */
+    public void indexed(User user) {
+        UUID id = user.getId();
+        String username = user.getUsernameNormalized();
+        String email = user.getEmailNormalized();
+        afterCommit(() -> {
+            UserSearchIndex current = this.index;
+            if (current != null) {
+                current.put(id, username, email);
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted user from the index once the transaction commits.
+     */
+    public void removed(UUID id) {
+        afterCommit(() -> {
+            UserSearchIndex current = this.index;
+            if (current != null) {
+                current.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the in-memory index from the database; a no-op on PostgreSQL
+     * or before the first search. Updates committed while it runs may be
+     * missed until the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${application.users.search.rebuild-interval:PT10M}",
+            initialDelayString = "${application.users.search.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (this.index != null) {
+            try {
+                this.index = load();
+            } catch (Exception e) {
+                log.warn("Could not rebuild the user search index", e);
+            }
+        }
+    }
+
+    private UserSearchIndex index() {
+        UserSearchIndex current = this.index;
+        if (current == null) {
+            synchronized (this) {
+                current = this.index;
+                if (current == null) {
+                    current = load();
+                    this.index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private UserSearchIndex load() {
+        long start = System.nanoTime();
+        UserSearchIndex fresh = new UserSearchIndex(this.threshold, this.maxCandidates);
+        this.readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = this.userRepository.streamSummaries()) {
+                users.forEach(user -> fresh.put(user.id(), User.normalize(user.username()), User.normalize(user.email())));
+            }
+        });
+        log.info("Built user search index over {} users in {} ms", fresh.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return fresh;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean isPostgres() {
+        if (this.postgres == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(this.jdbcTemplate.getJdbcTemplate().getDataSource(),
+                        DatabaseMetaData::getDatabaseProductName);
+                this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (Exception e) {
+                this.postgres = false;
+            }
+        }
+        return this.postgres;
+    }
+}
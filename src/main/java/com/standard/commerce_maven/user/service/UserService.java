@@ -1,10 +1,19 @@
 // UserService.java - Business Logic Layer
 package com.standard.commerce_maven.user.service;
 
-import java.time.LocalDateTime;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,8 +21,17 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder; // Import UUID
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.standard.commerce_maven.common.CountMode;
+import com.standard.commerce_maven.common.KeysetCursor;
+import com.standard.commerce_maven.common.PaginationDto;
+import com.standard.commerce_maven.common.PreconditionFailedException;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
 import com.standard.commerce_maven.user.entity.User;
 import com.standard.commerce_maven.user.repository.UserRepository;
 
@@ -25,19 +43,46 @@ import com.standard.commerce_maven.user.repository.UserRepository;
 @Service
 public class UserService implements UserDetailsService { // Implemented UserDetailsService
 
+    /**
+     * Sort keys that cursor pagination accepts; each has an index that starts
+     * with it, so a page is a seek on (key, id).
+     */
+    public static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "username", "email", "createdAt", "updatedAt");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // Injected PasswordEncoder
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserPrincipalCache principalCache;
+    private final UserCountEstimator countEstimator;
+    private final UserSearchService searchService;
+    private final UserJsonCache jsonCache;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Constructs a UserService with a UserRepository and PasswordEncoder.
      * Spring will automatically inject these.
      * 
-     * @param userRepository  The repository for user data.
-     * @param passwordEncoder The encoder for hashing passwords.
+     * @param userRepository       The repository for user data.
+     * @param passwordEncoder      The encoder for hashing passwords.
+     * @param tokenVersionRegistry Tracks token revocations for stateless auth.
+     * @param principalCache       Cached principals to invalidate on change.
+     * @param countEstimator       Approximate user total for listings.
+     * @param searchService        User search, told about new and renamed users.
+     * @param jsonCache            Serialized users to invalidate on change.
+     * @param transactionManager   For writes that must hash a password first.
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            TokenVersionRegistry tokenVersionRegistry, UserPrincipalCache principalCache,
+            UserCountEstimator countEstimator, UserSearchService searchService,
+            UserJsonCache jsonCache, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.principalCache = principalCache;
+        this.countEstimator = countEstimator;
+        this.searchService = searchService;
+        this.jsonCache = jsonCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -46,16 +91,107 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
      * @param pageable Pagination information
      * @return A page of User objects.
      */
+    @Transactional(readOnly = true)
     public Page<User> getAllUsers(Pageable pageable) {
         return this.userRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves one offset page of users. Only {@link CountMode#EXACT} runs a
+     * {@code count(*)}; {@link CountMode#ESTIMATE} reports the cached
+     * estimate (never less than what this page proves exists) and
+     * {@link CountMode#NONE} reports no total.
+     *
+     * @param pageable  Pagination information
+     * @param countMode How to report the total.
+     * @return The page.
+     */
+    @Transactional(readOnly = true)
+    public PaginationDto<UserSummary> getUsersPage(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return PaginationDto.fromPage(this.userRepository.findPageBy(pageable));
+        }
+        Slice<UserSummary> slice = this.userRepository.findSliceBy(pageable);
+        Long total = null;
+        if (countMode == CountMode.ESTIMATE) {
+            long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            total = Math.max(this.countEstimator.estimate(), seen);
+        }
+        return PaginationDto.fromSlice(slice, total);
+    }
+
+    /**
+     * Retrieves one page of users by keyset. The cost of a page does not grow
+     * with its depth, and no count query is run.
+     *
+     * @param cursor A cursor from a previous page, or null for the first page.
+     *               The cursor carries its own sort, so {@code order} is only
+     *               used for the first page.
+     * @param order  Sort for the first page; must be one of
+     *               {@link #CURSOR_SORT_PROPERTIES}.
+     * @param size   Page size.
+     * @return The page, with next/prev cursors where there is more to read.
+     * @throws IllegalArgumentException if the cursor or sort is not valid.
+     */
+    @Transactional(readOnly = true)
+    public PaginationDto<UserSummary> getUsersByCursor(String cursor, Sort.Order order, int size) {
+        KeysetCursor from = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        Sort.Order sortOrder = from != null ? new Sort.Order(from.direction(), from.property()) : order;
+        if (!CURSOR_SORT_PROPERTIES.contains(sortOrder.getProperty())) {
+            throw new IllegalArgumentException("Cannot page by cursor on " + sortOrder.getProperty()
+                    + "; use one of " + CURSOR_SORT_PROPERTIES);
+        }
+        // Tie-break on id in the same direction so the whole sort is one index scan
+        Sort sort = Sort.by(sortOrder);
+        if (!"id".equals(sortOrder.getProperty())) {
+            sort = sort.and(Sort.by(sortOrder.getDirection(), "id"));
+        }
+        ScrollPosition position = from != null ? from.toScrollPosition() : ScrollPosition.keyset();
+
+        Window<UserSummary> window = this.userRepository.findWindowBy(position, sort, Limit.of(size));
+        List<UserSummary> users = window.getContent();
+        if (users.isEmpty()) {
+            return PaginationDto.ofCursor(users, size, null, null);
+        }
+        // A backward window's hasNext() means there is more before it
+        boolean backward = from != null && from.backward();
+        boolean moreAfter = backward || window.hasNext();
+        boolean moreBefore = backward ? window.hasNext() : from != null;
+        String next = moreAfter
+                ? KeysetCursor.forward(sortOrder, keysetOf(users.get(users.size() - 1), sortOrder.getProperty())).encode()
+                : null;
+        String prev = moreBefore
+                ? KeysetCursor.backward(sortOrder, keysetOf(users.get(0), sortOrder.getProperty())).encode()
+                : null;
+        return PaginationDto.ofCursor(users, size, next, prev);
+    }
+
+    /**
+     * The (sort key, id) position of a row. Built here because Spring Data
+     * can only derive positions from entities, not from projections.
+     */
+    private static Map<String, Object> keysetOf(UserSummary user, String property) {
+        Object value = switch (property) {
+            case "id" -> user.id();
+            case "username" -> user.username();
+            case "email" -> user.email();
+            case "createdAt" -> user.createdAt();
+            case "updatedAt" -> user.updatedAt();
+            default -> throw new IllegalArgumentException("Cannot page by cursor on " + property);
+        };
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(property, value);
+        keys.put("id", user.id());
+        return keys;
+    }
+
     /**
      * Retrieves a user by their ID.
      * 
      * @param id The ID of the user to retrieve.
      * @return An Optional containing the User if found, or empty if not found.
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(UUID id) throws RuntimeException {
         try {
             return this.userRepository.findById(id);
@@ -64,19 +200,34 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
         }
     }
 
+    /**
+     * Retrieves the public view of a user without loading the entity.
+     *
+     * @param id The ID of the user to retrieve.
+     * @return The summary, or empty if not found.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserSummary> getUserSummary(UUID id) {
+        return this.userRepository.findSummaryById(id);
+    }
+
     /**
      * Creates a new user in the database.
-     * The password will be encoded before saving.
+     * The password is encoded before the transaction opens, so hashing never
+     * holds a database connection.
      * 
      * @param user The User object to be created.
      * @return The saved User object with its generated ID.
      */
-    @Transactional
     public User createUser(User user) {
-        // Encode the password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         // emailVerified defaults to false in User entity constructor
-        return this.userRepository.save(user);
+        return this.transactionTemplate.execute(status -> {
+            User saved = this.userRepository.save(user);
+            this.countEstimator.adjust(1);
+            this.searchService.indexed(saved);
+            return saved;
+        });
     }
 
     /**
@@ -87,18 +238,112 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
      * @return An Optional containing the updated User if found, or empty if not
      *         found.
      */
-    @Transactional
     public Optional<User> updateUser(UUID id, User userDetails) {
-        return this.userRepository.findById(id).map(user -> {
+        return updateUser(id, userDetails, null);
+    }
+
+    /**
+     * Updates an existing user if it is still at the version the client read.
+     *
+     * @param id          The ID of the user to update.
+     * @param userDetails A User object containing the updated details.
+     * @param ifMatch     If-Match header, or null to update unconditionally.
+     * @return An Optional containing the updated User if found, or empty if not
+     *         found.
+     * @throws PreconditionFailedException if the user changed since.
+     */
+    public Optional<User> updateUser(UUID id, User userDetails, String ifMatch) {
+        // Only update password if a new one is provided and not empty
+        String newPassword = userDetails.getPassword();
+        String passwordHash = newPassword != null && !newPassword.isEmpty()
+                ? this.passwordEncoder.encode(newPassword)
+                : null;
+        return this.transactionTemplate.execute(status -> this.userRepository.findById(id).map(user -> {
+            checkPrecondition(user, ifMatch);
             user.setUsername(userDetails.getUsername());
             user.setEmail(userDetails.getEmail());
-            // Only update password if a new one is provided and not empty
-            if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-                user.setPassword(this.passwordEncoder.encode(userDetails.getPassword()));
+            boolean revoke = user.getUserType() != userDetails.getUserType();
+            if (passwordHash != null) {
+                user.setPassword(passwordHash);
+                revoke = true;
             }
             user.setUserType(userDetails.getUserType());
-            return this.userRepository.save(user);
-        });
+            if (revoke) {
+                // Tokens carry the role, so a role or password change must invalidate them
+                user.revokeTokens();
+                this.tokenVersionRegistry.recordVersion(user.getId(), user.getTokenVersion());
+            }
+            this.principalCache.invalidate(id);
+            this.jsonCache.invalidate(id);
+            User saved = this.userRepository.save(user);
+            this.searchService.indexed(saved);
+            return saved;
+        }));
+    }
+
+    /**
+     * Applies a merge patch. Only the supplied fields are set, and
+     * {@link User} is dynamically updated, so the UPDATE carries just the
+     * columns whose values changed; a patch that changes nothing writes
+     * nothing. The password is only hashed when the patch contains one.
+     *
+     * @param id    The ID of the user to update.
+     * @param patch The fields to change.
+     * @return An Optional containing the updated User if found, or empty if not
+     *         found.
+     */
+    public Optional<User> patchUser(UUID id, UserPatch patch) {
+        return patchUser(id, patch, null);
+    }
+
+    /**
+     * Applies a merge patch if the user is still at the version the client
+     * read.
+     *
+     * @param id      The ID of the user to update.
+     * @param patch   The fields to change.
+     * @param ifMatch If-Match header, or null to update unconditionally.
+     * @return An Optional containing the updated User if found, or empty if not
+     *         found.
+     * @throws PreconditionFailedException if the user changed since.
+     */
+    public Optional<User> patchUser(UUID id, UserPatch patch, String ifMatch) {
+        String passwordHash = patch.password() != null ? this.passwordEncoder.encode(patch.password()) : null;
+        return this.transactionTemplate.execute(status -> this.userRepository.findById(id).map(user -> {
+            checkPrecondition(user, ifMatch);
+            boolean renamed = false;
+            if (patch.username() != null && !patch.username().equals(user.getUsername())) {
+                user.setUsername(patch.username());
+                renamed = true;
+            }
+            if (patch.email() != null && !patch.email().equals(user.getEmail())) {
+                user.setEmail(patch.email());
+                renamed = true;
+            }
+            boolean revoke = false;
+            if (patch.userType() != null && patch.userType() != user.getUserType()) {
+                user.setUserType(patch.userType());
+                revoke = true;
+            }
+            if (passwordHash != null) {
+                user.setPassword(passwordHash);
+                revoke = true;
+            }
+            if (!renamed && !revoke) {
+                return user;
+            }
+            if (revoke) {
+                user.revokeTokens();
+                this.tokenVersionRegistry.recordVersion(user.getId(), user.getTokenVersion());
+            }
+            this.principalCache.invalidate(id);
+            this.jsonCache.invalidate(id);
+            User saved = this.userRepository.save(user);
+            if (renamed) {
+                this.searchService.indexed(saved);
+            }
+            return saved;
+        }));
     }
 
     /**
@@ -109,11 +354,57 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
      */
     @Transactional
     public boolean deleteUser(UUID id) {
-        if (userRepository.existsById(id)) {
+        return deleteUser(id, null);
+    }
+
+    /**
+     * Deletes a user if it is still at the version the client read.
+     *
+     * @param id      The ID of the user to delete.
+     * @param ifMatch If-Match header, or null to delete unconditionally.
+     * @return True if the user was found and deleted, false otherwise.
+     * @throws PreconditionFailedException if the user changed since.
+     */
+    @Transactional
+    public boolean deleteUser(UUID id, String ifMatch) {
+        if (ifMatch != null) {
+            // Checked on the loaded entity: its DELETE is version-checked, so
+            // a write between the check and the delete still fails it
+            User user = userRepository.findById(id).orElse(null);
+            if (user == null) {
+                return false;
+            }
+            checkPrecondition(user, ifMatch);
+            userRepository.delete(user);
+        } else if (userRepository.existsById(id)) {
             userRepository.deleteById(id);
-            return true;
+        } else {
+            return false;
+        }
+        this.countEstimator.adjust(-1);
+        this.searchService.removed(id);
+        this.tokenVersionRegistry.recordDeleted(id);
+        this.principalCache.invalidate(id);
+        this.jsonCache.invalidate(id);
+        return true;
+    }
+
+    /**
+     * Reads just what conditional requests are evaluated against, without
+     * loading the user.
+     *
+     * @param id The user's ID.
+     * @return The user's ETag and Last-Modified, or empty if not found.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserVersion> getUserVersion(UUID id) {
+        return this.userRepository.findVersionById(id);
+    }
+
+    private static void checkPrecondition(User user, String ifMatch) {
+        if (ifMatch != null && !UserVersion.of(user).matches(ifMatch)) {
+            throw new PreconditionFailedException("User " + user.getId() + " was modified");
         }
-        return false;
     }
 
     /**
@@ -122,6 +413,7 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
      * @param username The username to search for.
      * @return The User object if found, null otherwise.
      */
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return this.userRepository.findByUsername(username).orElse(null);
     }
@@ -135,6 +427,7 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
      * @throws UsernameNotFoundException if the user is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = this.userRepository.findByUsername(username).orElse(null);
         if (user == null) {
@@ -143,21 +436,42 @@ public class UserService implements UserDetailsService { // Implemented UserDeta
         return user; // Our User entity already implements UserDetails
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findOneByEmail(String email) {
         return this.userRepository.findByEmail(email);
     }
 
-    public Optional<User> updatePassword(UUID userId, String newPassword) {
-        return this.userRepository.findById(userId).map(user -> {
-            user.setPassword(this.passwordEncoder.encode(newPassword));
-            return this.userRepository.save(user);
-        });
+    /**
+     * Sets a new password and revokes the user's tokens in a single UPDATE,
+     * without loading the user.
+     *
+     * @param userId      The user's ID.
+     * @param newPassword The new raw password.
+     * @return True if the user exists.
+     */
+    public boolean updatePassword(UUID userId, String newPassword) {
+        String passwordHash = this.passwordEncoder.encode(newPassword);
+        if (this.userRepository.updatePassword(userId, passwordHash) == 0) {
+            return false;
+        }
+        this.tokenVersionRegistry.recordRevoked(userId);
+        this.principalCache.invalidate(userId);
+        this.jsonCache.invalidate(userId);
+        return true;
     }
 
-    public void verifyEmail(UUID userId) {
-        this.userRepository.findById(userId).ifPresent(user -> {
-            user.setEmailVerifiedAt(LocalDateTime.now());
-            this.userRepository.save(user);
-        });
+    /**
+     * Marks the user's email as verified in a single UPDATE.
+     *
+     * @param userId The user's ID.
+     * @return True if the user exists.
+     */
+    public boolean verifyEmail(UUID userId) {
+        if (this.userRepository.markEmailVerified(userId) == 0) {
+            return false;
+        }
+        this.principalCache.invalidate(userId);
+        this.jsonCache.invalidate(userId);
+        return true;
     }
 }
\ No newline at end of file
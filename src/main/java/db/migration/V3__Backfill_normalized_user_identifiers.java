@@ -0,0 +1,75 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fills username_normalized/email_normalized for existing users, BATCH_SIZE
+ * rows per statement. Runs outside a transaction so every batch commits on
+ * its own: row locks are held briefly and an interrupted run resumes where it
+ * stopped.
+ *
+ * Fails before V4 adds the unique constraints if two users differ only in
+ * case; those accounts must be merged or renamed first.
+ */
+public class V3__Backfill_normalized_user_identifiers extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V3__Backfill_normalized_user_identifiers.class);
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String BACKFILL = "UPDATE users SET "
+            + "username_normalized = lower(trim(username)), email_normalized = lower(trim(email)) "
+            + "WHERE id IN (SELECT id FROM users WHERE username_normalized IS NULL OR email_normalized IS NULL "
+            + "LIMIT " + BATCH_SIZE + ")";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (PreparedStatement backfill = connection.prepareStatement(BACKFILL)) {
+            long total = 0;
+            int updated;
+            do {
+                updated = backfill.executeUpdate();
+                total += updated;
+            } while (updated > 0);
+            log.info("Backfilled normalized identifiers for {} users", total);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        requireUnique(connection, "username_normalized");
+        requireUnique(connection, "email_normalized");
+    }
+
+    private static void requireUnique(Connection connection, String column) throws SQLException {
+        List<String> clashes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("SELECT " + column + " FROM users WHERE " + column
+                        + " IS NOT NULL GROUP BY " + column + " HAVING count(*) > 1 ORDER BY " + column + " LIMIT 20")) {
+            while (rows.next()) {
+                clashes.add(rows.getString(1));
+            }
+        }
+        if (!clashes.isEmpty()) {
+            throw new IllegalStateException("Users differ only in case of " + column.replace("_normalized", "")
+                    + ", resolve before migrating: " + clashes);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes for user search on PostgreSQL: text_pattern_ops B-trees for prefix
+ * ranges and pg_trgm GIN indexes for similarity, on the normalized username
+ * and email. Built CONCURRENTLY (hence outside a transaction) so writes are
+ * not blocked on a large table. Other databases search an in-memory index
+ * and skip this migration.
+ */
+public class V5__User_search_indexes extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V5__User_search_indexes.class);
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            // Needs CREATE on the database (or a superuser) the first time
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String column : new String[] { "username_normalized", "email_normalized" }) {
+                String name = column.replace("_normalized", "");
+                createIndex(statement, "idx_users_" + name + "_prefix",
+                        "users (" + column + " text_pattern_ops)");
+                createIndex(statement, "idx_users_" + name + "_trgm",
+                        "users USING gin (" + column + " gin_trgm_ops)");
+            }
+        }
+    }
+
+    /**
+     * Builds an index CONCURRENTLY unless a valid one exists, replacing an
+     * invalid one left by an interrupted build. PostgreSQL only.
+     */
+    static void createIndex(Statement statement, String name, String definition) throws SQLException {
+        Boolean valid = null;
+        try (ResultSet existing = statement.executeQuery("SELECT i.indisvalid FROM pg_index i "
+                + "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = '" + name + "'")) {
+            if (existing.next()) {
+                valid = existing.getBoolean(1);
+            }
+        }
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            // A failed CONCURRENTLY build leaves an invalid index behind
+            statement.execute("DROP INDEX CONCURRENTLY " + name);
+        }
+        statement.execute("CREATE INDEX CONCURRENTLY " + name + " ON " + definition);
+        log.info("Created index {}", name);
+    }
+}
@@ -0,0 +1,38 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * The (created_at, id) and (updated_at, id) indexes behind keyset
+ * pagination. V1 only creates them on an empty database; databases
+ * baselined at 1 got them from ddl-auto=update, if at all. On PostgreSQL
+ * they are built CONCURRENTLY, so writes are not blocked on a large table.
+ */
+public class V8__User_keyset_indexes extends BaseJavaMigration {
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String column : new String[] { "created_at", "updated_at" }) {
+                String name = "idx_users_" + column + "_id";
+                String definition = "users (" + column + ", id)";
+                if (postgres) {
+                    V5__User_search_indexes.createIndex(statement, name, definition);
+                } else {
+                    statement.execute("CREATE INDEX IF NOT EXISTS " + name + " ON " + definition);
+                }
+            }
+        }
+    }
+}
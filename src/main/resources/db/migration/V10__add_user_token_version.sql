@@ -0,0 +1,3 @@
+-- Token version for revoking issued JWTs. V1 declares it for empty
+-- databases only; databases baselined at 1 were created without it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version integer DEFAULT 0 NOT NULL;
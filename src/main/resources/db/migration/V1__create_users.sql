@@ -0,0 +1,18 @@
+-- Users table as created by Hibernate before migrations were introduced.
+-- Existing databases are baselined at version 1 (or already have the table),
+-- so this only creates it on an empty database.
+CREATE TABLE IF NOT EXISTS users (
+    id uuid NOT NULL PRIMARY KEY,
+    username varchar(255) NOT NULL UNIQUE,
+    email varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    user_type varchar(255) NOT NULL,
+    email_verified_at timestamp(6),
+    two_factor_secret varchar(255),
+    token_version integer DEFAULT 0 NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at_id ON users (updated_at, id);
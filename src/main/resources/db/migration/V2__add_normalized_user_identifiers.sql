@@ -0,0 +1,4 @@
+-- Case-insensitive lookup keys: trimmed, lower-cased username and email.
+-- Nullable until V3 has backfilled existing rows.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS username_normalized varchar(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized varchar(255);
@@ -0,0 +1,10 @@
+-- Rows written by older instances since V3 ran
+UPDATE users SET username_normalized = lower(trim(username)) WHERE username_normalized IS NULL;
+UPDATE users SET email_normalized = lower(trim(email)) WHERE email_normalized IS NULL;
+
+ALTER TABLE users ALTER COLUMN username_normalized SET NOT NULL;
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
+
+-- Unique indexes: findByUsername/findByEmail are equality seeks on these
+ALTER TABLE users ADD CONSTRAINT ux_users_username_normalized UNIQUE (username_normalized);
+ALTER TABLE users ADD CONSTRAINT ux_users_email_normalized UNIQUE (email_normalized);
@@ -0,0 +1,2 @@
+-- Optimistic-locking version for users; targeted updates bump it as well.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
@@ -0,0 +1,20 @@
+-- Mail outbox, until now only created by ddl-auto=update. Databases where
+-- Hibernate already created it keep their table; the index is filled in.
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id uuid NOT NULL PRIMARY KEY,
+    to_recipients text NOT NULL,
+    cc_recipients text,
+    bcc_recipients text,
+    subject varchar(255) NOT NULL,
+    body text,
+    html_body text,
+    status varchar(16) NOT NULL CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD')),
+    attempts integer NOT NULL,
+    next_attempt_at timestamp(6) with time zone NOT NULL,
+    last_error varchar(1000),
+    created_at timestamp(6) with time zone NOT NULL,
+    sent_at timestamp(6) with time zone
+);
+
+-- Dispatcher polling: due PENDING messages and lapsed SENDING claims
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_due ON mail_outbox (status, next_attempt_at);
@@ -0,0 +1,14 @@
+-- Bulk campaigns, until now only created by ddl-auto=update. Outbox rows
+-- record their campaign and recipient count; progress is counted from them.
+ALTER TABLE mail_outbox ADD COLUMN IF NOT EXISTS campaign_id uuid;
+ALTER TABLE mail_outbox ADD COLUMN IF NOT EXISTS recipient_count integer DEFAULT 0 NOT NULL;
+
+-- Campaign progress: recipients per status
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_campaign ON mail_outbox (campaign_id, status);
+
+CREATE TABLE IF NOT EXISTS mail_campaigns (
+    id uuid NOT NULL PRIMARY KEY,
+    accepting boolean NOT NULL,
+    rejected_recipients bigint NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL
+);
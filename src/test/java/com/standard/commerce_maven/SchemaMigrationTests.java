@@ -0,0 +1,85 @@
+package com.standard.commerce_maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The schema comes from db/migration alone: Hibernate only validates it.
+ * A database created by ddl-auto before migrations existed, and baselined
+ * at 1, is brought up to the same schema.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schemamigration",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        // H2 folds unquoted names to upper case; "public" would be a second schema
+        "spring.flyway.schemas=PUBLIC",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class SchemaMigrationTests {
+
+    private static final String LEGACY_URL = "jdbc:h2:mem:legacyschema;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void entitiesMatchTheMigratedSchema() {
+        // The context only starts if validation passed
+        assertEquals("10", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void baselinedDatabasesGetTheSameTablesAndIndexes() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(LEGACY_URL, "sa", "");
+                Statement statement = connection.createStatement()) {
+            // The users table as ddl-auto created it before this series: no token version, no keyset indexes
+            statement.execute("CREATE TABLE users (id uuid NOT NULL PRIMARY KEY, "
+                    + "username varchar(255) NOT NULL UNIQUE, email varchar(255) NOT NULL UNIQUE, "
+                    + "password varchar(255) NOT NULL, user_type varchar(255) NOT NULL, "
+                    + "email_verified_at timestamp(6), two_factor_secret varchar(255), "
+                    + "created_at timestamp(6) NOT NULL, updated_at timestamp(6) NOT NULL)");
+
+            Flyway.configure().dataSource(LEGACY_URL, "sa", "").locations("classpath:db/migration")
+                    .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+            Set<String> tables = names(statement, "SELECT table_name FROM information_schema.tables "
+                    + "WHERE table_schema = 'PUBLIC'");
+            assertTrue(tables.containsAll(Set.of("USERS", "MAIL_OUTBOX", "MAIL_CAMPAIGNS")), tables.toString());
+            Set<String> columns = names(statement, "SELECT column_name FROM information_schema.columns "
+                    + "WHERE table_schema = 'PUBLIC' AND table_name = 'USERS'");
+            assertTrue(columns.containsAll(Set.of("TOKEN_VERSION", "VERSION", "USERNAME_NORMALIZED")),
+                    columns.toString());
+            Set<String> indexes = names(statement, "SELECT index_name FROM information_schema.indexes "
+                    + "WHERE table_schema = 'PUBLIC'");
+            assertTrue(indexes.containsAll(Set.of("IDX_USERS_CREATED_AT_ID", "IDX_USERS_UPDATED_AT_ID",
+                    "IDX_MAIL_OUTBOX_DUE", "IDX_MAIL_OUTBOX_CAMPAIGN")), indexes.toString());
+        }
+    }
+
+    private static Set<String> names(Statement statement, String query) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rows = statement.executeQuery(query)) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,60 @@
+package com.standard.commerce_maven.auth;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.standard.commerce_maven.auth.service.JwtService;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserService;
+
+/**
+ * Actuator endpoints other than health are for admins only, despite the
+ * main chain's catch-all permitAll.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuatorsecurity",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        "management.health.mail.enabled=false" // No SMTP server here; health would report DOWN
+})
+@AutoConfigureMockMvc
+class ActuatorSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void metricsNeedAnAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(UserType.USER)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(UserType.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    private String token(UserType userType) {
+        User user = userService.createUser(new User("actuator-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", userType));
+        return jwtService.generateToken(user);
+    }
+}
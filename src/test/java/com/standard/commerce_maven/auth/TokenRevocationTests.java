@@ -0,0 +1,168 @@
+package com.standard.commerce_maven.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.standard.commerce_maven.auth.service.AuthService;
+import com.standard.commerce_maven.auth.service.JwtService;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+import com.standard.commerce_maven.user.service.TokenVersionRegistry;
+import com.standard.commerce_maven.user.service.UserPrincipalCache;
+import com.standard.commerce_maven.user.service.UserService;
+
+/**
+ * Single-use reset and verification links, and revocation of bearer tokens
+ * in stateless principal mode, where the filter never loads the user.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tokenrevocation",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        "application.security.jwt.stateless-principal=true"
+})
+class TokenRevocationTests {
+
+    @MockitoSpyBean
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userService.createUser(new User("revocation-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", UserType.USER));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resetLinksWorkOnce() throws Exception {
+        // A bearer token is not a reset link
+        assertThrows(Exception.class, () -> authService.resetPassword(jwtService.generateToken(user), "stolen"));
+        String resetToken = jwtService.generateResetToken(user);
+        assertNull(authenticate(resetToken));
+        authService.resetPassword(resetToken, "secret2");
+
+        assertThrows(Exception.class, () -> authService.resetPassword(resetToken, "secret3"));
+        User reset = userRepository.findById(user.getId()).orElseThrow();
+        assertTrue(passwordEncoder.matches("secret2", reset.getPassword()));
+        assertEquals(1, reset.getTokenVersion());
+    }
+
+    @Test
+    void verificationLinksWorkOnceForTheirAddress() throws Exception {
+        String staleLink = jwtService.generateVerificationToken(user, user.getEmail());
+        authService.updatePassword(user.getId(), "secret2");
+        User current = userRepository.findById(user.getId()).orElseThrow();
+
+        // Links issued before a revocation, bearer tokens and reset links are refused
+        assertThrows(Exception.class, () -> authService.verifyEmail(staleLink));
+        assertThrows(Exception.class, () -> authService.verifyEmail(jwtService.generateToken(current)));
+        assertThrows(Exception.class, () -> authService.verifyEmail(jwtService.generateResetToken(current)));
+
+        String oldAddressLink = jwtService.generateVerificationToken(current, current.getEmail());
+        assertNull(authenticate(oldAddressLink));
+        String newEmail = UUID.randomUUID() + "@example.com";
+        authService.updateEmail(user.getId(), newEmail);
+        assertThrows(Exception.class, () -> authService.verifyEmail(oldAddressLink));
+
+        String link = jwtService.generateVerificationToken(current, newEmail);
+        authService.verifyEmail(link);
+        assertNotNull(userRepository.findById(user.getId()).orElseThrow().getEmailVerifiedAt());
+        assertThrows(Exception.class, () -> authService.verifyEmail(link));
+    }
+
+    @Test
+    void statelessTokensAreRejectedOnceRevoked() throws Exception {
+        String token = jwtService.generateToken(user);
+        clearInvocations(principalCache);
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authenticate(token).getPrincipal());
+        assertEquals(UserType.USER, principal.getUserType());
+        verify(principalCache, never()).get(any());
+
+        User promoted = userService.patchUser(user.getId(), new UserPatch(null, null, null, UserType.ADMIN))
+                .orElseThrow();
+        assertNull(authenticate(token));
+        // Still rejected once the snapshot is rebuilt from the table
+        tokenVersionRegistry.refresh();
+        assertNull(authenticate(token));
+
+        String promotedToken = jwtService.generateToken(promoted);
+        assertEquals(UserType.ADMIN,
+                ((AuthenticatedUser) authenticate(promotedToken).getPrincipal()).getUserType());
+
+        authService.updatePassword(user.getId(), "secret2");
+        assertNull(authenticate(promotedToken));
+
+        String latest = jwtService.generateToken(userRepository.findById(user.getId()).orElseThrow());
+        assertNotNull(authenticate(latest));
+        userService.deleteUser(user.getId());
+        assertNull(authenticate(latest));
+        tokenVersionRegistry.refresh();
+        assertNull(authenticate(latest));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,62 @@
+package com.standard.commerce_maven.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.standard.commerce_maven.auth.JwtProperties;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtKeyRingTests {
+
+    private static final String OLD_SECRET = "404E635266556A586E3272357538782F413F4428472B4B625064536";
+    private static final String NEW_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F";
+    private static final Instant ROTATION = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void rotatesSigningKeyAndHonoursGraceWindow() {
+        User user = new User("rotation", "rotation@example.com", "hash", UserType.USER);
+        user.setId(UUID.randomUUID());
+
+        String oldToken = service(ROTATION.minusSeconds(60)).generateToken(user);
+        String newToken = service(ROTATION.plusSeconds(60)).generateToken(user);
+
+        JwtService duringGrace = service(ROTATION.plus(Duration.ofMinutes(30)));
+        assertEquals(user.getId(), duringGrace.verify(oldToken).getUserId());
+        assertEquals(user.getId(), duringGrace.verify(newToken).getUserId());
+
+        // Past retire-at + grace the old key no longer verifies anything
+        JwtService afterGrace = service(ROTATION.plus(Duration.ofHours(2)));
+        assertThrows(JwtException.class, () -> afterGrace.verify(oldToken));
+    }
+
+    private static JwtService service(Instant now) {
+        JwtProperties properties = new JwtProperties();
+        properties.setExpiration(Duration.ofDays(1).toMillis());
+        properties.setVerificationGrace(Duration.ofHours(1));
+        properties.setKeys(List.of(
+                key(JwtProperties.DEFAULT_KEY_ID, OLD_SECRET, null, ROTATION),
+                key("2026-01", NEW_SECRET, ROTATION, null)));
+        return new JwtService(new JwtKeyRing(properties, Clock.fixed(now, ZoneOffset.UTC)), properties);
+    }
+
+    private static JwtProperties.Key key(String id, String secret, Instant activeFrom, Instant retireAt) {
+        JwtProperties.Key key = new JwtProperties.Key();
+        key.setId(id);
+        key.setSecret(secret);
+        key.setActiveFrom(activeFrom);
+        key.setRetireAt(retireAt);
+        return key;
+    }
+}
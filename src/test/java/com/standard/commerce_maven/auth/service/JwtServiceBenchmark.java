@@ -0,0 +1,92 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.standard.commerce_maven.auth.JwtProperties;
+import com.standard.commerce_maven.auth.dto.VerifiedToken;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Measures the per-request CPU cost of authenticating a bearer token.
+ * {@code legacyFilterPath} reproduces the old filter: three full parses, each
+ * decoding the secret and building a new parser. {@code verifyOnce} is the
+ * current path through {@link JwtService#verify(String)}.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.auth.service.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B625064536";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey(SECRET);
+        properties.setExpiration(3600000);
+        this.jwtService = new JwtService(new JwtKeyRing(properties), properties);
+        this.user = new User("bench", "bench@example.com", "hash", UserType.USER);
+        this.user.setId(UUID.randomUUID());
+        this.token = this.jwtService.generateToken(this.user);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        UUID id = UUID.fromString(legacyClaims(this.token).getSubject());
+        UUID again = UUID.fromString(legacyClaims(this.token).getSubject());
+        Date expiration = legacyClaims(this.token).getExpiration();
+        return id.equals(this.user.getId()) && again.equals(id) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        VerifiedToken verified = this.jwtService.verify(this.token);
+        return this.jwtService.isTokenValid(verified, this.user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.standard.commerce_maven.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.standard.commerce_maven.auth.controller.AuthController;
+import com.standard.commerce_maven.auth.dto.AuthRequest;
+import com.standard.commerce_maven.auth.dto.AuthResponse;
+import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.user.dtos.UserDto;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A saturated hashing pool turns logins and registrations away with 503 and
+ * Retry-After instead of queueing them on request threads.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hashingadmission",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        "application.security.password.hashing.threads=1",
+        "application.security.password.hashing.queue-capacity=1",
+        "application.security.password.hashing.retry-after=PT3S"
+})
+class PasswordHashingAdmissionTests {
+
+    @Autowired
+    private PasswordHashingExecutor executor;
+
+    @Autowired
+    private AuthController authController;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rejectsWithRetryAfterWhenTheQueueIsFull() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        userService.createUser(new User("admission-" + UUID.randomUUID(), email, "Secret1!", UserType.USER));
+        double rejectedBefore = meterRegistry.counter("password.hashing.rejected").count();
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Occupy the only thread, then the only queue slot
+            Future<?> busy = callers.submit(() -> executor.execute("test", () -> {
+                running.countDown();
+                return release.await(30, TimeUnit.SECONDS);
+            }));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+            Future<?> queued = callers.submit(() -> executor.execute("test", () -> true));
+            awaitQueueDepth(1, Duration.ofSeconds(10));
+
+            ResponseEntity<ResponseDto<AuthResponse>> login = authController.authenticate(
+                    new AuthRequest(email, "Secret1!"));
+            assertEquals(503, login.getStatusCode().value());
+            assertEquals("3", login.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(503, login.getBody().getStatus());
+
+            UserDto registration = new UserDto();
+            registration.setUsername("admission-" + UUID.randomUUID());
+            registration.setEmail(UUID.randomUUID() + "@example.com");
+            registration.setPassword("Secret1!");
+            assertEquals(503, authController.registerUser(registration).getStatusCode().value());
+
+            // Background rehashes are dropped, not rejected with an error
+            assertFalse(executor.tryExecuteInBackground("test", () -> {
+            }));
+            assertEquals(rejectedBefore + 2, meterRegistry.counter("password.hashing.rejected").count());
+
+            release.countDown();
+            busy.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+
+        assertEquals(200, authController.authenticate(new AuthRequest(email, "Secret1!")).getBody().getStatus());
+    }
+
+    private void awaitQueueDepth(int depth, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < depth) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Queue did not reach " + depth + " within " + timeout);
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.standard.commerce_maven.auth.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Hashes per second per core for each supported configuration. Runs on a
+ * single thread, so the score is the per-core figure; multiply by the hashing
+ * pool size for the node's login ceiling.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.auth.service.PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({ "bcrypt-10", "bcrypt-12", "argon2-19m-2", "argon2-64m-3", "pbkdf2-310000" })
+    private String configuration;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        this.encoder = switch (this.configuration) {
+            case "bcrypt-10" -> new BCryptPasswordEncoder(10);
+            case "bcrypt-12" -> new BCryptPasswordEncoder(12);
+            case "argon2-19m-2" -> new Argon2PasswordEncoder(16, 32, 1, 19456, 2);
+            case "argon2-64m-3" -> new Argon2PasswordEncoder(16, 32, 1, 65536, 3);
+            case "pbkdf2-310000" -> new Pbkdf2PasswordEncoder("", 16, 310000,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            default -> throw new IllegalArgumentException(this.configuration);
+        };
+        this.hash = this.encoder.encode("benchmark-Password-1");
+    }
+
+    @Benchmark
+    public String encode() {
+        return this.encoder.encode("benchmark-Password-1");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return this.encoder.matches("benchmark-Password-1", this.hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.standard.commerce_maven.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.standard.commerce_maven.auth.service.AuthService;
+import com.standard.commerce_maven.auth.service.OffloadingPasswordEncoder;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:connectionhold",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        "application.datasource.hold-time.warn-threshold=PT0.2S"
+})
+@ExtendWith(OutputCaptureExtension.class)
+class ConnectionHoldTimeTests {
+
+    @MockitoSpyBean
+    private OffloadingPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ConnectionHoldTimeRecorder recorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void passwordsAreHashedBeforeTheTransactionOpens() throws Exception {
+        List<Boolean> inTransaction = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+
+        User created = userService.createUser(new User("hasher", "hasher@example.com", "secret", UserType.USER));
+        authService.createUser(new User("hasher2", "hasher2@example.com", "secret", UserType.USER));
+        userService.updatePassword(created.getId(), "secret2");
+        authService.changePassword(created.getId(), "secret2", "secret3");
+        // Patches hash only when they set a password
+        userService.patchUser(created.getId(), new UserPatch("hasher-renamed", null, null, null));
+        userService.patchUser(created.getId(), new UserPatch(null, null, "secret4", null));
+
+        assertEquals(List.of(false, false, false, false, false), inTransaction);
+    }
+
+    @Test
+    void recordsHoldTimePerRequestAndLogsSlowTransactions(CapturedOutput output) {
+        long before = meterRegistry.get("db.transaction.hold").tag("read-only", "false").timer().count();
+
+        recorder.beginRequest();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> sleep(300));
+        long held = recorder.endRequest();
+
+        assertTrue(held >= TimeUnit.MILLISECONDS.toNanos(300), "held " + held);
+        // Background workers record their own transactions too
+        assertTrue(meterRegistry.get("db.transaction.hold").tag("read-only", "false").timer().count() > before);
+        assertTrue(output.getOut().contains("held its connection for"), output.getOut());
+        assertTrue(output.getOut().contains("ConnectionHoldTimeTests.recordsHoldTimePerRequestAndLogsSlowTransactions"),
+                output.getOut());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.standard.commerce_maven.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.auth.dto.AuthResponse;
+import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+
+class JacksonPerformanceModeTests {
+
+    private final ObjectMapper standard = mapper(false);
+    private final ObjectMapper performance = mapper(true);
+
+    @Test
+    void writesTheSameJsonAsTheStandardMapper() throws Exception {
+        User user = new User("jackson", "jackson@example.com", "secret", UserType.ADMIN);
+        user.setId(UUID.randomUUID());
+        user.setEmailVerifiedAt(LocalDateTime.of(2024, 2, 29, 23, 59, 0, 120_000_000));
+
+        for (Object value : List.of(
+                new ResponseDto<>(new PageImpl<>(List.of(user), PageRequest.of(0, 20), 1), 200, null, "Users"),
+                new ResponseDto<>(UserSummary.from(user), 200, null, "User"),
+                new AuthResponse("token", user),
+                new ResponseDto<>(null, 500, "java.lang.IllegalStateException", "An unexpected error occurred"))) {
+            assertEquals(standard.writeValueAsString(value), performance.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void writesLocalDateTimesAsIsoLocalDateTime() throws Exception {
+        for (LocalDateTime time : List.of(
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5),
+                LocalDateTime.of(1, 12, 31, 0, 0, 0, 1),
+                LocalDateTime.of(2025, 10, 17, 12, 30, 45, 123_456_000),
+                LocalDateTime.of(2025, 10, 17, 12, 30, 45, 999_999_999),
+                LocalDateTime.of(2025, 10, 17, 12, 30, 45, 100_000_000),
+                LocalDateTime.of(12345, 6, 7, 8, 9, 10),
+                LocalDateTime.of(-5, 6, 7, 8, 9, 10))) {
+            String expected = "\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) + "\"";
+            assertEquals(expected, performance.writeValueAsString(time));
+            assertEquals(standard.writeValueAsString(Map.of("at", time)),
+                    performance.writeValueAsString(Map.of("at", time)));
+        }
+    }
+
+    static ObjectMapper mapper(boolean performanceMode) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().jacksonCustomizer(performanceMode).customize(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.standard.commerce_maven.config;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.auth.dto.AuthResponse;
+import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+
+/**
+ * Serializes the API's most frequent response bodies with the ObjectMapper
+ * {@link JacksonConfig} builds, with and without
+ * {@code application.jackson.performance-mode}: a page of 50 users, a login
+ * response and the 500 error envelope. No Spring context is started, so only
+ * Jackson is measured.
+ *
+ * Run with {@code -prof gc} to compare bytes allocated per operation:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.config.JacksonSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean performanceMode;
+
+    private ObjectMapper objectMapper;
+    private ResponseDto<Page<User>> usersPage;
+    private AuthResponse authResponse;
+    private ResponseDto<Object> errorResponse;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = JacksonPerformanceModeTests.mapper(this.performanceMode);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = new User("benchmark-user-" + i, "benchmark-user-" + i + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1eZHsG2eq6F6Yw5qC0p6R2a",
+                    i % 10 == 0 ? UserType.ADMIN : UserType.USER);
+            user.setId(UUID.randomUUID());
+            user.setEmailVerifiedAt(LocalDateTime.now().minusDays(i));
+            users.add(user);
+        }
+        this.usersPage = new ResponseDto<>(new PageImpl<>(users, PageRequest.of(0, 50), 1000), 200, null,
+                "Users retrieved successfully");
+        this.authResponse = new AuthResponse("eyJhbGciOiJIUzI1NiJ9." + UUID.randomUUID() + ".signature",
+                users.get(0));
+        this.errorResponse = new ResponseDto<>(null, 500,
+                Arrays.toString(new IllegalStateException("benchmark").getStackTrace()),
+                "An unexpected error occurred");
+    }
+
+    @Benchmark
+    public byte[] usersPage() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.usersPage);
+    }
+
+    @Benchmark
+    public byte[] authResponse() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.authResponse);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.errorResponse);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JacksonSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.standard.commerce_maven.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserService;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica. The
+ * replica gets the primary's schema but different rows, so which one served
+ * a read is visible in the result.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rwprimary",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        "application.datasource.replicas[0].url=" + ReadWriteRoutingTests.REPLICA_URL + ";IFEXISTS=TRUE",
+        "application.datasource.replicas[0].driver-class-name=org.h2.Driver",
+        "application.datasource.health-check-interval=PT1H"
+})
+class ReadWriteRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rwreplica";
+
+    /** Keeps the replica database alive; created before the context starts. */
+    private static Connection replica = openReplica();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @BeforeEach
+    void startReplica() throws SQLException {
+        if (!replica.isValid(1)) {
+            replica = openReplica();
+        }
+        if (!replica.getMetaData().getTables(null, "PUBLIC", "USERS", null).next()) {
+            // Reads outside a transaction go to the primary
+            List<String> schema = primary.queryForList("script nodata", String.class);
+            try (Statement statement = replica.createStatement()) {
+                for (String sql : schema) {
+                    statement.execute(sql);
+                }
+                statement.execute("insert into users (id, username, email, username_normalized, email_normalized, "
+                        + "password, user_type, token_version, created_at, updated_at) values ('" + UUID.randomUUID()
+                        + "', 'replica-only', 'replica-only@example.com', 'replica-only', "
+                        + "'replica-only@example.com', 'x', 'USER', 0, current_timestamp, current_timestamp)");
+            }
+        }
+        routingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        assertNotNull(userService.findByUsername("replica-only"));
+        assertNull(userService.findByUsername("relativity-codes"));
+
+        userService.createUser(new User("writer", "writer@example.com", "secret", UserType.USER));
+
+        assertEquals(1, primary.queryForObject("select count(*) from users where username = 'writer'",
+                Integer.class));
+        assertNull(userService.findByUsername("writer"));
+    }
+
+    @Test
+    void principalsReadTheirOwnWrites() {
+        authenticateAs("alice");
+        userService.createUser(new User("alices-friend", "friend@example.com", "secret", UserType.USER));
+        assertNotNull(userService.findByUsername("alices-friend"));
+        assertNull(userService.findByUsername("replica-only"));
+
+        // Someone else is still served by the replica, which has not seen it
+        authenticateAs("bob");
+        assertNull(userService.findByUsername("alices-friend"));
+        assertNotNull(userService.findByUsername("replica-only"));
+    }
+
+    @Test
+    @DirtiesContext
+    void fallsBackToThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        try (Statement statement = replica.createStatement()) {
+            statement.execute("shutdown");
+        }
+        routingDataSource.checkReplicas();
+
+        assertFalse(routingDataSource.isHealthy("replica-0"));
+        assertNotNull(userService.findByUsername("relativity-codes"));
+        assertNull(userService.findByUsername("replica-only"));
+    }
+
+    private static void authenticateAs(String name) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(name, null, List.of()));
+    }
+
+    private static Connection openReplica() {
+        try {
+            return DriverManager.getConnection(REPLICA_URL + ";DB_CLOSE_DELAY=-1");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
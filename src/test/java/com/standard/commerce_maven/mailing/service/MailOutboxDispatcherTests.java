@@ -0,0 +1,205 @@
+package com.standard.commerce_maven.mailing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.standard.commerce_maven.mailing.dto.CampaignProgress;
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+import com.standard.commerce_maven.mailing.dto.MailJobStatus;
+import com.standard.commerce_maven.mailing.entity.MailCampaign;
+import com.standard.commerce_maven.mailing.entity.MailOutboxMessage;
+import com.standard.commerce_maven.mailing.enums.MailStatus;
+import com.standard.commerce_maven.mailing.repository.MailCampaignRepository;
+import com.standard.commerce_maven.mailing.repository.MailOutboxRepository;
+import com.standard.commerce_maven.mailing.service.CampaignService.RecipientFormat;
+
+/**
+ * Runs the outbox against an in-process SMTP server (GreenMail on port 3025).
+ * Enqueue latency is measured by {@link MailOutboxEnqueueBenchmark}, SMTP
+ * throughput by {@link SmtpSendBenchmark}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mailoutbox",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=outbox@example.com",
+        "spring.mail.password=secret",
+        "spring.mail.debug=false",
+        "spring.mail.ssl.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false",
+        "application.security.password.target-latency=PT0S",
+        "application.mailing.outbox.workers=8",
+        "application.mailing.outbox.poll-interval=PT0.05S",
+        "application.mailing.outbox.initial-backoff=PT0.05S",
+        "application.mailing.outbox.max-backoff=PT0.2S",
+        "application.mailing.outbox.max-attempts=3",
+        "application.mailing.throttle.enabled=false"
+})
+class MailOutboxDispatcherTests {
+
+    private static final int MESSAGES = 200;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("outbox@example.com", "secret"));
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private CampaignService campaignService;
+
+    @Autowired
+    private CampaignProgressTracker progressTracker;
+
+    @Autowired
+    private MailCampaignRepository campaignRepository;
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Test
+    void deliversQueuedMailInTheBackground() {
+        List<UUID> jobIds = IntStream.range(0, MESSAGES)
+                .mapToObj(i -> mailOutboxService.enqueue(new EmailRequest(
+                        List.of("user" + i + "@example.com"), "Outbox " + i, "Body " + i)))
+                .toList();
+
+        awaitTrue(() -> greenMail.getReceivedMessages().length == MESSAGES, Duration.ofSeconds(60));
+        awaitTrue(() -> mailOutboxService.getStatus(jobIds.get(MESSAGES - 1)).orElseThrow().status()
+                == MailStatus.SENT, Duration.ofSeconds(10));
+        assertEquals(1, mailOutboxService.getStatus(jobIds.get(0)).orElseThrow().attempts());
+    }
+
+    @Test
+    void countsLapsedClaimsAsAttempts() {
+        Instant lapsed = Instant.now().minusSeconds(1);
+        // A worker died mid-send once: retried, and the lapse is an attempt
+        MailOutboxMessage retried = claimedMessage("retried@example.com", lapsed, 0);
+        // Claimed and lost max-attempts - 1 times already: one more lapse is the last
+        MailOutboxMessage stuck = claimedMessage("stuck@example.com", lapsed, 2);
+        outboxRepository.saveAll(List.of(retried, stuck));
+
+        awaitTrue(() -> mailOutboxService.getStatus(retried.getId()).orElseThrow().status() == MailStatus.SENT,
+                Duration.ofSeconds(30));
+        assertEquals(2, mailOutboxService.getStatus(retried.getId()).orElseThrow().attempts());
+        awaitTrue(() -> mailOutboxService.getStatus(stuck.getId()).orElseThrow().status() == MailStatus.DEAD,
+                Duration.ofSeconds(30));
+        MailJobStatus status = mailOutboxService.getStatus(stuck.getId()).orElseThrow();
+        assertEquals(3, status.attempts());
+        assertTrue(status.lastError().startsWith("Claim lapsed"));
+        assertEquals(0, greenMail.getReceivedMessagesForDomain("stuck@example.com").length);
+    }
+
+    @Test
+    void sendsStreamedCampaignInBccBatches() throws Exception {
+        String csv = "email,name\n"
+                + IntStream.range(0, 120).mapToObj(i -> "campaign" + i + "@example.com,User " + i)
+                        .collect(Collectors.joining("\n"))
+                + "\nnot-an-address,Broken\n";
+
+        UUID campaignId = campaignService.startFromStream("Notice", "Hello",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), RecipientFormat.CSV, 1000.0);
+
+        awaitTrue(() -> progressTracker.get(campaignId).orElseThrow().sent() == 120, Duration.ofSeconds(30));
+        CampaignProgress progress = progressTracker.get(campaignId).orElseThrow();
+        assertEquals(120, progress.queued());
+        assertEquals(1, progress.failed());
+        assertFalse(progress.accepting());
+        // One copy per BCC recipient, plus the sender's own copy of each of the 3 messages
+        assertEquals(123, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void countsCampaignProgressFromTheOutbox() {
+        // As left by another instance: nothing in this instance's memory
+        UUID campaignId = UUID.randomUUID();
+        campaignRepository.save(new MailCampaign(campaignId));
+        campaignRepository.addRejected(campaignId, 2);
+        Instant later = Instant.now().plus(Duration.ofDays(1));
+        MailOutboxMessage sent = campaignMessage(campaignId, later, 3);
+        sent.setStatus(MailStatus.SENT);
+        MailOutboxMessage dead = campaignMessage(campaignId, later, 1);
+        dead.setStatus(MailStatus.DEAD);
+        outboxRepository.saveAll(List.of(sent, dead, campaignMessage(campaignId, later, 5)));
+
+        CampaignProgress progress = progressTracker.get(campaignId).orElseThrow();
+        assertTrue(progress.accepting());
+        assertEquals(9, progress.queued());
+        assertEquals(3, progress.sent());
+        assertEquals(3, progress.failed());
+
+        campaignRepository.finishAccepting(campaignId);
+        assertFalse(progressTracker.get(campaignId).orElseThrow().accepting());
+        assertTrue(progressTracker.get(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void deadLettersAfterMaxAttempts() {
+        greenMail.stop(); // Every attempt now fails with a refused connection
+
+        UUID jobId = mailOutboxService.enqueue(
+                new EmailRequest(List.of("nobody@example.com"), "Undeliverable", "Body"));
+
+        awaitTrue(() -> mailOutboxService.getStatus(jobId).map(MailJobStatus::status)
+                .filter(MailStatus.DEAD::equals).isPresent(), Duration.ofSeconds(30));
+        MailJobStatus status = mailOutboxService.getStatus(jobId).orElseThrow();
+        assertEquals(3, status.attempts());
+        assertNotNull(status.lastError());
+    }
+
+    private static MailOutboxMessage claimedMessage(String to, Instant claimExpiresAt, int attempts) {
+        MailOutboxMessage message = new MailOutboxMessage(new EmailRequest(List.of(to), "Claimed", "Body"));
+        message.setStatus(MailStatus.SENDING);
+        message.setNextAttemptAt(claimExpiresAt);
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    private static MailOutboxMessage campaignMessage(UUID campaignId, Instant notBefore, int recipients) {
+        List<String> bcc = IntStream.range(0, recipients).mapToObj(i -> "r" + i + "@example.com").toList();
+        return new MailOutboxMessage(new EmailRequest(List.of("outbox@example.com"), "Campaign", "Body", null, bcc),
+                campaignId, notBefore);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + timeout);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
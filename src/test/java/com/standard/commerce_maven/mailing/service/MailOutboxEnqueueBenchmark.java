@@ -0,0 +1,83 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.standard.commerce_maven.CommerceMavenApplication;
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+
+/**
+ * What queuing an email costs a request thread: one outbox INSERT in its own
+ * transaction, no SMTP. Sample mode reports the p50/p99 latencies. The
+ * dispatcher polls once at startup and then not again during the run, so
+ * nothing is sent.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.mailing.service.MailOutboxEnqueueBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailOutboxEnqueueBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MailOutboxService mailOutboxService;
+    private EmailRequest request;
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(CommerceMavenApplication.class)
+                // Command-line arguments, so they override application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:outboxenqueue",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--application.security.password.target-latency=PT0S",
+                        "--application.mailing.outbox.poll-interval=PT1H",
+                        "--logging.level.root=WARN");
+        this.mailOutboxService = this.context.getBean(MailOutboxService.class);
+        this.request = new EmailRequest(List.of("user@example.com"), "Outbox", "Body");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public UUID enqueue() {
+        return this.mailOutboxService.enqueue(this.request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailOutboxEnqueueBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
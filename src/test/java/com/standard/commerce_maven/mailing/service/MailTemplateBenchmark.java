@@ -0,0 +1,62 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.standard.commerce_maven.mailing.dto.RenderedEmail;
+
+/**
+ * Render throughput of a mail template (subject + text + HTML) with the
+ * parsed-template cache on and off.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.mailing.service.MailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean cached;
+
+    private MailTemplateRenderer renderer;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setUp() {
+        this.renderer = new MailTemplateRenderer(this.cached);
+        this.model = Map.of("link", "https://example.com/reset-password?token=abc.def.ghi");
+    }
+
+    @Benchmark
+    public RenderedEmail render() {
+        return this.renderer.render("password-reset", Locale.ENGLISH, this.model);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,27 @@
+package com.standard.commerce_maven.mailing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.standard.commerce_maven.mailing.dto.RenderedEmail;
+
+class MailTemplateRendererTests {
+
+    private final MailTemplateRenderer renderer = new MailTemplateRenderer(true);
+
+    @Test
+    void rendersSubjectTextAndHtml() {
+        String link = "https://example.com/verify-email?token=a&b";
+
+        RenderedEmail email = renderer.render("email-verification", Locale.ENGLISH, Map.of("link", link));
+
+        assertEquals("Verify New Email", email.subject());
+        assertTrue(email.textBody().startsWith("Please click the link to verify your new email: " + link));
+        assertTrue(email.htmlBody().contains("href=\"https://example.com/verify-email?token=a&amp;b\""));
+    }
+}
@@ -0,0 +1,40 @@
+package com.standard.commerce_maven.mailing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.standard.commerce_maven.mailing.MailThrottleProperties;
+import com.standard.commerce_maven.mailing.MailThrottleProperties.Limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SendRateLimiterTests {
+
+    @Test
+    void defersOnceBurstIsSpentAndRefundsOtherBuckets() {
+        MailThrottleProperties properties = new MailThrottleProperties();
+        properties.setSender(new Limit(0.5, 3));
+        properties.setDomainDefault(new Limit(0.5, 3));
+        properties.setDomains(Map.of("slow.example", new Limit(0.5, 1)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SendRateLimiter limiter = new SendRateLimiter(properties, registry, "sender@example.com");
+
+        assertEquals(Duration.ZERO, limiter.tryAcquire(List.of("a@slow.example")));
+        // slow.example is empty; the sender token taken for this call is given back
+        assertTrue(limiter.tryAcquire(List.of("b@slow.example")).compareTo(Duration.ofSeconds(1)) > 0);
+        assertEquals(Duration.ZERO, limiter.tryAcquire(List.of("c@fast.example")));
+        assertEquals(Duration.ZERO, limiter.tryAcquire(List.of("d@fast.example")));
+        // Sender burst of 3 is now spent
+        assertTrue(limiter.tryAcquire(List.of("e@fast.example")).compareTo(Duration.ZERO) > 0);
+
+        assertEquals(1.0, registry.get("mail.throttle.deferred").tag("scope", "domain").counter().count());
+        assertEquals(1.0, registry.get("mail.throttle.deferred").tag("scope", "sender").counter().count());
+        assertTrue(registry.get("mail.throttle.tokens").tag("scope", "sender").gauge().value() < 1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.standard.commerce_maven.mailing.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.standard.commerce_maven.mailing.dto.EmailRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Messages per second against an in-process SMTP server (GreenMail).
+ * {@code connectionPerMessage} is the old path: JavaMailSender opens, AUTHs
+ * and closes a session for every message. The pooled variants reuse
+ * connections from {@link SmtpConnectionPool}.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.mailing.service.SmtpSendBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SmtpSendBenchmark {
+
+    private static final int BATCH = 20;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool connectionPool;
+    private EmailService emailService;
+    private List<EmailRequest> batch;
+
+    @Setup
+    public void setUp() {
+        this.greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        this.greenMail.setUser("bench@example.com", "secret");
+        this.greenMail.start();
+
+        this.mailSender = new JavaMailSenderImpl();
+        this.mailSender.setHost("localhost");
+        this.mailSender.setPort(this.greenMail.getSmtp().getPort());
+        this.mailSender.setUsername("bench@example.com");
+        this.mailSender.setPassword("secret");
+        this.mailSender.getJavaMailProperties().put("mail.smtp.auth", "true");
+
+        this.connectionPool = new SmtpConnectionPool(this.mailSender, new SimpleMeterRegistry(),
+                4, Duration.ofSeconds(30), Duration.ofSeconds(5), 1000, Duration.ofSeconds(10));
+        this.emailService = new EmailService(this.mailSender, this.connectionPool, new MailTemplateRenderer(true));
+        ReflectionTestUtils.setField(this.emailService, "fromEmail", "bench@example.com");
+        this.batch = IntStream.range(0, BATCH)
+                .mapToObj(i -> new EmailRequest(List.of("user" + i + "@example.com"), "Bench " + i, "Body"))
+                .toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        this.greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.connectionPool.destroy();
+        this.greenMail.stop();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("bench@example.com");
+        message.setTo("user@example.com");
+        message.setSubject("Bench");
+        message.setText("Body");
+        this.mailSender.send(message);
+    }
+
+    @Benchmark
+    public void pooledSend() {
+        this.emailService.sendEmail(this.batch.get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int pooledSendAll() {
+        return this.emailService.sendAll(this.batch).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SmtpSendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
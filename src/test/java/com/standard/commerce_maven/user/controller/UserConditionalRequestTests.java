@@ -0,0 +1,156 @@
+package com.standard.commerce_maven.user.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.common.JsonEnvelope;
+import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.user.dtos.UserDto;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+import com.standard.commerce_maven.user.service.UserService;
+
+import jakarta.validation.Validator;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditionalrequests",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class UserConditionalRequestTests {
+
+    @MockitoSpyBean
+    private UserService userService;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private UUID id;
+
+    @BeforeEach
+    void createUser() {
+        id = userService.createUser(new User("conditional-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", UserType.USER)).getId();
+    }
+
+    @Test
+    void revalidationIsAnsweredFromTheVersionAlone() throws Exception {
+        ResponseEntity<?> first = userController.getUserById(id, get(null));
+        assertEquals(200, first.getStatusCode().value());
+        String eTag = first.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertTrue(first.getHeaders().getLastModified() > 0);
+        assertTrue(first.getHeaders().getCacheControl().contains("no-cache"));
+
+        clearInvocations(userService);
+        ServletWebRequest revalidation = get(eTag);
+        ResponseEntity<?> unchanged = userController.getUserById(id, revalidation);
+        assertEquals(304, unchanged.getStatusCode().value());
+        assertNull(unchanged.getBody());
+        assertEquals(eTag, revalidation.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(userService, never()).getUserSummary(id);
+
+        userService.verifyEmail(id);
+        ResponseEntity<?> changed = userController.getUserById(id, get(eTag));
+        assertEquals(200, changed.getStatusCode().value());
+        assertNotEquals(eTag, changed.getHeaders().getETag());
+        assertFalse(json(changed).path("data").path("emailVerifiedAt").isNull());
+    }
+
+    @Test
+    void servesCachedJsonUntilTheUserChanges() throws Exception {
+        ResponseEntity<?> first = userController.getUserById(id, get(null));
+        JsonNode body = json(first);
+        // Same document Jackson writes for the envelope
+        UserSummary summary = userService.getUserSummary(id).orElseThrow();
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(
+                new ResponseDto<>(summary, 200, null, "User retrieved successfully"))), body);
+
+        clearInvocations(userService);
+        assertEquals(body, json(userController.getUserById(id, get(null))));
+        verify(userService, never()).getUserSummary(id);
+
+        userService.patchUser(id, UserPatch.from(objectMapper.readTree("{\"username\":\"cached-" + id + "\"}"),
+                validator));
+        assertEquals("cached-" + id,
+                json(userController.getUserById(id, get(null))).path("data").path("username").asText());
+
+        userRepository.markEmailVerified(id);
+        assertFalse(json(userController.getUserById(id, get(null))).path("data").path("emailVerifiedAt").isNull());
+    }
+
+    @Test
+    void writesWithAStaleIfMatchFail() throws Exception {
+        String read = userController.getUserById(id, get(null)).getHeaders().getETag();
+        userService.verifyEmail(id);
+
+        UserDto update = new UserDto();
+        update.setUsername("renamed-" + id);
+        update.setEmail(id + "@example.com");
+        assertEquals(412, userController.updateUser(id, update, read).getStatusCode().value());
+        assertEquals(412, userController.patchUser(id, objectMapper.readTree("{\"username\":\"x\"}"), read)
+                .getStatusCode().value());
+        assertEquals(412, userController.deleteUser(id, read).getStatusCode().value());
+        assertTrue(userRepository.existsById(id));
+
+        // The ETag a write returns is the one a later read computes
+        String current = userController.getUserById(id, get(null)).getHeaders().getETag();
+        ResponseEntity<ResponseDto<UserSummary>> updated = userController.updateUser(id, update, current);
+        assertEquals(200, updated.getStatusCode().value());
+        String afterUpdate = updated.getHeaders().getETag();
+        assertEquals(afterUpdate, userController.getUserById(id, get(null)).getHeaders().getETag());
+
+        assertEquals(200, userController.deleteUser(id, afterUpdate).getStatusCode().value());
+        assertTrue(userRepository.findById(id).isEmpty());
+    }
+
+    private JsonNode json(ResponseEntity<?> response) throws Exception {
+        return objectMapper.readTree(((JsonEnvelope.Body) response.getBody()).toByteArray());
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
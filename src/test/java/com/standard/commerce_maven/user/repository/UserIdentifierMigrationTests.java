@@ -0,0 +1,110 @@
+package com.standard.commerce_maven.user.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the db/migration scripts against a database holding users from before
+ * the normalized columns existed, then checks the lookups' query plans.
+ */
+class UserIdentifierMigrationTests {
+
+    private static final String URL = "jdbc:h2:mem:usermigration;DB_CLOSE_DELAY=-1";
+
+    /** More than one backfill batch. */
+    private static final int LEGACY_USERS = 2_500;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        flyway("2").migrate();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users "
+                + "(id, username, email, password, user_type, created_at, updated_at) "
+                + "VALUES (?, ?, ?, 'x', 'USER', current_timestamp, current_timestamp)")) {
+            for (int i = 0; i < LEGACY_USERS; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "User" + i);
+                insert.setString(3, " User" + i + "@Example.COM");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        flyway(null).migrate();
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    @Test
+    void backfillsExistingUsers() throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("SELECT count(*) FROM users "
+                        + "WHERE username_normalized = lower(username) AND email_normalized = lower(trim(email))")) {
+            rows.next();
+            assertEquals(LEGACY_USERS, rows.getInt(1));
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery(
+                        "SELECT username_normalized, email_normalized FROM users WHERE username = 'User7'")) {
+            rows.next();
+            assertEquals("user7", rows.getString(1));
+            assertEquals("user7@example.com", rows.getString(2));
+        }
+    }
+
+    @Test
+    void rejectsIdentifiersDifferingOnlyInCase() {
+        assertThrows(SQLException.class, () -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO users (id, username, email, username_normalized, "
+                        + "email_normalized, password, user_type, created_at, updated_at) VALUES (random_uuid(), "
+                        + "'USER7', 'other@example.com', 'user7', 'other@example.com', 'x', 'USER', "
+                        + "current_timestamp, current_timestamp)");
+            }
+        });
+    }
+
+    @Test
+    void lookupsSeekTheNormalizedIndexes() throws SQLException {
+        assertTrue(plan("SELECT * FROM users WHERE email_normalized = 'user7@example.com'")
+                .contains("UX_USERS_EMAIL_NORMALIZED"));
+        assertTrue(plan("SELECT * FROM users WHERE username_normalized = 'user7'")
+                .contains("UX_USERS_USERNAME_NORMALIZED"));
+        // What the normalized columns replace: no index can serve this
+        assertTrue(plan("SELECT * FROM users WHERE lower(email) = 'user7@example.com'").contains("tableScan"));
+    }
+
+    private static String plan(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            rows.next();
+            return rows.getString(1);
+        }
+    }
+}
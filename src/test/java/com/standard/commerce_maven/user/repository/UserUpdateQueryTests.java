@@ -0,0 +1,205 @@
+package com.standard.commerce_maven.user.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.auth.service.AuthService;
+import com.standard.commerce_maven.auth.service.JwtService;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.service.UserService;
+
+import jakarta.validation.Validator;
+
+/**
+ * Password, verification and email changes as targeted UPDATEs, and merge
+ * patches as UPDATEs of the changed columns only. Statements
+ * against the users table are counted per thread, so background jobs in the
+ * same context do not interfere.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userupdates",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.standard.commerce_maven.user.repository.UserUpdateQueryTests$UsersStatements",
+        "application.security.password.target-latency=PT0S"
+})
+class UserUpdateQueryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private UUID id;
+
+    @BeforeEach
+    void createUser() {
+        User user = userService.createUser(new User("updates-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", UserType.USER));
+        id = user.getId();
+    }
+
+    @Test
+    void updatesWithoutLoadingTheUser() throws Exception {
+        assertEquals(1, UsersStatements.during(() -> assertTrue(userService.verifyEmail(id))));
+        User user = userRepository.findById(id).orElseThrow();
+        assertNotNull(user.getEmailVerifiedAt());
+        assertEquals(1, user.getVersion());
+
+        assertEquals(1, UsersStatements.during(() -> assertTrue(userService.updatePassword(id, "secret2"))));
+        user = userRepository.findById(id).orElseThrow();
+        assertTrue(passwordEncoder.matches("secret2", user.getPassword()));
+        assertEquals(1, user.getTokenVersion());
+        assertEquals(2, user.getVersion());
+
+        String resetToken = jwtService.generateResetToken(user);
+        assertEquals(1, UsersStatements.during(() -> authService.resetPassword(resetToken, "secret3")));
+        user = userRepository.findById(id).orElseThrow();
+        assertTrue(passwordEncoder.matches("secret3", user.getPassword()));
+        assertEquals(2, user.getTokenVersion());
+
+        User unverified = userService.createUser(new User("updates-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", UserType.USER));
+        String verificationToken = jwtService.generateVerificationToken(unverified, unverified.getEmail());
+        assertEquals(1, UsersStatements.during(() -> authService.verifyEmail(verificationToken)));
+        assertNotNull(userRepository.findById(unverified.getId()).orElseThrow().getEmailVerifiedAt());
+
+        assertFalse(userService.verifyEmail(UUID.randomUUID()));
+        assertFalse(userService.updatePassword(UUID.randomUUID(), "secret"));
+    }
+
+    @Test
+    void readsOnceWhereTheOldValuesAreNeeded() throws Exception {
+        // Read to check the old password, then a versioned UPDATE
+        assertEquals(2, UsersStatements.during(() -> authService.changePassword(id, "secret", "secret2")));
+        // Read for the verification token, then a versioned UPDATE
+        assertEquals(2, UsersStatements.during(() -> authService.updateEmail(id, "Changed@Example.com")));
+
+        User user = userRepository.findById(id).orElseThrow();
+        assertTrue(passwordEncoder.matches("secret2", user.getPassword()));
+        assertEquals("Changed@Example.com", user.getEmail());
+        assertEquals(user.getId(), userRepository.findByEmail("changed@example.com").orElseThrow().getId());
+        assertNull(user.getEmailVerifiedAt());
+        assertEquals(2, user.getVersion());
+    }
+
+    @Test
+    void staleWritesLoseToTargetedUpdates() {
+        User stale = userRepository.findById(id).orElseThrow();
+        userService.verifyEmail(id);
+
+        assertEquals(0, userRepository.updateEmail(id, "late@example.com", stale.getVersion()));
+        assertEquals(0, userRepository.updatePasswordIfVersion(id, "x", stale.getVersion()));
+        stale.setUsername("overwritten");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userRepository.save(stale));
+        assertNotNull(userRepository.findById(id).orElseThrow().getEmailVerifiedAt());
+    }
+
+    @Test
+    void patchesOnlyTheSuppliedColumns() throws Exception {
+        User before = userRepository.findById(id).orElseThrow();
+        UserPatch rename = UserPatch.from(objectMapper.readTree("{\"username\":\"patched-" + id + "\"}"), validator);
+
+        List<String> sql = UsersStatements.record(() -> userService.patchUser(id, rename).orElseThrow());
+        assertEquals(2, sql.size(), sql.toString());
+        String update = sql.get(1).toLowerCase().replaceAll("/\\*.*?\\*/", "").trim();
+        assertTrue(update.startsWith("update users set "), update);
+        assertTrue(update.contains("username=") && update.contains("username_normalized="), update);
+        assertFalse(update.contains("password") || update.contains("email") || update.contains("token_version"), update);
+
+        User after = userRepository.findById(id).orElseThrow();
+        assertEquals("patched-" + id, after.getUsername());
+        assertEquals(before.getPassword(), after.getPassword());
+        assertEquals(before.getTokenVersion(), after.getTokenVersion());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+
+        // Unchanged values write nothing; a role change revokes tokens
+        assertEquals(1, UsersStatements.during(() -> userService.patchUser(id, rename)));
+        userService.patchUser(id, UserPatch.from(objectMapper.readTree("{\"userType\":\"admin\"}"), validator));
+        assertEquals(UserType.ADMIN, userRepository.findById(id).orElseThrow().getUserType());
+        assertEquals(before.getTokenVersion() + 1, userRepository.findById(id).orElseThrow().getTokenVersion());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> UserPatch.from(objectMapper.readTree("{\"email\":null}"), validator));
+        assertThrows(IllegalArgumentException.class,
+                () -> UserPatch.from(objectMapper.readTree("{\"email\":\"not-an-email\"}"), validator));
+        assertThrows(IllegalArgumentException.class,
+                () -> UserPatch.from(objectMapper.readTree("{\"id\":\"" + id + "\"}"), validator));
+    }
+
+    /** Records the SQL Hibernate sends against the users table on this thread. */
+    public static class UsersStatements implements StatementInspector {
+
+        private static final Pattern USERS = Pattern.compile("\\busers\\b", Pattern.CASE_INSENSITIVE);
+        private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recorded = RECORDED.get();
+            if (recorded != null && USERS.matcher(sql).find()) {
+                recorded.add(sql);
+            }
+            return sql;
+        }
+
+        static int during(ThrowingRunnable action) throws Exception {
+            return record(action).size();
+        }
+
+        static List<String> record(ThrowingRunnable action) throws Exception {
+            List<String> recorded = new ArrayList<>();
+            RECORDED.set(recorded);
+            try {
+                action.run();
+            } finally {
+                RECORDED.remove();
+            }
+            return recorded;
+        }
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,95 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.standard.commerce_maven.user.dtos.UserTokenVersion;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+class TokenVersionRegistryTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void answersFromTheSnapshotAndTheOverlay() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, true);
+        when(userRepository.streamTokenVersions()).thenAnswer(invocation -> Stream.of(
+                new UserTokenVersion(id, 3), new UserTokenVersion(UUID.randomUUID(), 0)));
+        registry.refresh();
+
+        assertTrue(registry.isCurrent(id, 3));
+        assertFalse(registry.isCurrent(id, 2));
+
+        // A local bump takes effect before the next refresh
+        registry.recordVersion(id, 4);
+        assertFalse(registry.isCurrent(id, 3));
+        assertTrue(registry.isCurrent(id, 4));
+        verify(userRepository, never()).findTokenVersionById(id);
+
+        registry.recordDeleted(id);
+        assertFalse(registry.isCurrent(id, 4));
+    }
+
+    @Test
+    void reloadsRevokedUsersUntilTheNextRefresh() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, true);
+        when(userRepository.streamTokenVersions()).thenAnswer(invocation -> Stream.of(new UserTokenVersion(id, 0)));
+        registry.refresh();
+
+        when(userRepository.findTokenVersionById(id)).thenReturn(Optional.of(1));
+        registry.recordRevoked(id);
+        assertFalse(registry.isCurrent(id, 0));
+        assertTrue(registry.isCurrent(id, 1));
+        verify(userRepository, times(1)).findTokenVersionById(id);
+
+        // The refresh replaces the overlay entry with the snapshot
+        when(userRepository.streamTokenVersions()).thenAnswer(invocation -> Stream.of(new UserTokenVersion(id, 1)));
+        registry.refresh();
+        clearInvocations(userRepository);
+        assertTrue(registry.isCurrent(id, 1));
+        assertFalse(registry.isCurrent(id, 0));
+        verify(userRepository, never()).findTokenVersionById(id);
+    }
+
+    @Test
+    void unknownUsersAreLoadedOnceAndDeletedOnesRejected() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, true);
+        UUID missing = UUID.randomUUID();
+        when(userRepository.findTokenVersionById(id)).thenReturn(Optional.of(2));
+        when(userRepository.findTokenVersionById(missing)).thenReturn(Optional.empty());
+
+        assertTrue(registry.isCurrent(id, 2));
+        assertTrue(registry.isCurrent(id, 2));
+        verify(userRepository, times(1)).findTokenVersionById(id);
+        assertFalse(registry.isCurrent(missing, 0));
+    }
+
+    @Test
+    void recordsNothingWhenDisabled() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, false);
+        when(userRepository.findTokenVersionById(id)).thenReturn(Optional.of(5));
+
+        registry.recordVersion(id, 7);
+        registry.recordRevoked(id);
+        registry.recordDeleted(id);
+        registry.refresh();
+
+        // No overlay entry: the check goes to the database
+        assertTrue(registry.isCurrent(id, 5));
+        verify(userRepository).findTokenVersionById(id);
+        verify(userRepository, never()).streamTokenVersions();
+    }
+}
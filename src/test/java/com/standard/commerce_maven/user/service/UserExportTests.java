@@ -0,0 +1,146 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.standard.commerce_maven.user.service.UserExportService.ExportFormat;
+
+/**
+ * Exports a million users and checks that the heap does not grow with the
+ * number of rows written. Growth is measured from the first sample onwards,
+ * so the in-memory database itself is part of the baseline.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userexport",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class UserExportTests {
+
+    private static final int USERS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    /** Seeded users plus any created at startup. */
+    private static long total;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @BeforeAll
+    static void seed(@Autowired DataSource dataSource, @Autowired JdbcTemplate jdbcTemplate) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement("insert into users "
+                        + "(id, username, email, username_normalized, email_normalized, password, user_type, "
+                        + "token_version, created_at, updated_at) values (?, ?, ?, ?, ?, 'x', 'USER', 0, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= USERS; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "user" + i);
+                insert.setString(3, "user" + i + "@example.com");
+                insert.setString(4, "user" + i);
+                insert.setString(5, "user" + i + "@example.com");
+                insert.setTimestamp(6, now);
+                insert.setTimestamp(7, now);
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        total = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+    }
+
+    @Test
+    void exportsAMillionUsersInConstantMemory() throws Exception {
+        HeapSamplingStream out = new HeapSamplingStream();
+        long rows = userExportService.export(out, ExportFormat.NDJSON);
+
+        assertEquals(total, rows);
+        assertEquals(total, out.lines);
+        long growth = out.maxUsed - out.baseline;
+        assertTrue(growth < MAX_HEAP_GROWTH,
+                "heap grew by " + growth / (1024 * 1024) + "MB between row " + SAMPLE_EVERY + " and row " + USERS);
+    }
+
+    @Test
+    void writesCsvWithAHeaderAndStopsWhenTheClientGoesAway() {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        OutputStream disconnecting = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                if (received.size() >= 256 * 1024) {
+                    throw new IOException("Broken pipe");
+                }
+                received.write(b);
+            }
+        };
+
+        assertThrows(IOException.class, () -> userExportService.export(disconnecting, ExportFormat.CSV));
+
+        String[] lines = received.toString(StandardCharsets.UTF_8).split("\r\n", 3);
+        assertEquals("id,username,email,userType,emailVerifiedAt,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].matches("[0-9a-f-]{36},[^,]+,[^,]+@[^,]+,[A-Z_]+,[^,]*,[^,]+,[^,]+"), lines[1]);
+    }
+
+    /**
+     * Discards the export, counting lines and sampling post-GC heap use every
+     * {@link #SAMPLE_EVERY} rows.
+     */
+    private static final class HeapSamplingStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private long lines;
+        private long baseline;
+        private long maxUsed;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+                System.gc();
+                long used = memory.getHeapMemoryUsage().getUsed();
+                if (lines == SAMPLE_EVERY) {
+                    baseline = used;
+                }
+                maxUsed = Math.max(maxUsed, used);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
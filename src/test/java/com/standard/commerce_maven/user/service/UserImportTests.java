@@ -0,0 +1,148 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.standard.commerce_maven.auth.PasswordEncoderConfig;
+import com.standard.commerce_maven.user.dtos.UserImportReport;
+import com.standard.commerce_maven.user.dtos.UserImportReport.RowError;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+import com.standard.commerce_maven.user.service.UserImportService.ImportFormat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userimport",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S",
+        // Small batches so duplicates span chunks
+        "application.users.import.batch-size=3"
+})
+class UserImportTests {
+
+    private static final String PASSWORD = "Secret1!";
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean(name = PasswordEncoderConfig.HASHING_ENCODER)
+    private PasswordEncoder hashingEncoder;
+
+    @BeforeEach
+    void seed() {
+        userRepository.deleteAll();
+        userRepository.save(new User("existing", "existing@example.com", "x", UserType.USER));
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRestByLine() throws Exception {
+        String ndjson = String.join("\n",
+                row("alice", "alice@example.com"),
+                row("bob", "bob@example.com"),
+                "{not json",
+                row("Existing", "new@example.com"),
+                row("carol", "EXISTING@example.com"),
+                "",
+                row("alice", "alice2@example.com"),
+                "{\"username\":\"dave\",\"email\":\"dave@example.com\",\"password\":\"weak\"}",
+                row("erin", "erin@example.com"));
+
+        UserImportReport report = importService.importUsers(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(8, report.rows());
+        assertEquals(3, report.imported());
+        assertEquals(5, report.rejected());
+        Map<Long, String> errors = byLine(report.errors());
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L), errors.keySet().stream().sorted().toList());
+        assertEquals("Malformed JSON", errors.get(3L));
+        assertEquals("Username already exists", errors.get(4L));
+        assertEquals("Email already exists", errors.get(5L));
+        assertEquals("Username already exists", errors.get(7L)); // alice was committed by an earlier chunk
+        assertTrue(errors.get(8L).startsWith("password:"));
+
+        User alice = userRepository.findByUsername("alice").orElseThrow();
+        assertTrue(passwordEncoder.matches(PASSWORD, alice.getPassword()));
+        assertTrue(userRepository.findByUsername("erin").isPresent());
+        assertEquals(alice.getId(), userRepository.findByEmail(" Alice@Example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void importsCsvWithHeaderAndQuotedFields() throws Exception {
+        String csv = String.join("\r\n",
+                "username,email,password",
+                "frank,frank@example.com,\"" + PASSWORD + "\"",
+                "heidi,heidi@example.com," + PASSWORD,
+                "heidi,heidi2@example.com," + PASSWORD,
+                "\"grace, jr\",grace@example.com," + PASSWORD,
+                "ivan,ivan@example.com",
+                "\"unterminated,x@example.com," + PASSWORD);
+
+        UserImportReport report = importService.importUsers(stream(csv), ImportFormat.CSV);
+
+        assertEquals(6, report.rows());
+        assertEquals(3, report.imported());
+        Map<Long, String> errors = byLine(report.errors());
+        assertEquals("Duplicate username in import (line 3)", errors.get(4L));
+        assertEquals("Expected username,email,password", errors.get(6L));
+        assertEquals("Malformed CSV", errors.get(7L));
+        assertTrue(userRepository.findByUsername("grace, jr").isPresent());
+        assertTrue(report.rowsPerSecond() > 0);
+    }
+
+    @Test
+    void retriesRowByRowWhenAConcurrentSignupTakesAName() throws Exception {
+        // Signs up "carol" after the existence check, while the chunk is being hashed
+        doAnswer(invocation -> {
+            userRepository.save(new User("carol", "carol-signup@example.com", "x", UserType.USER));
+            return invocation.callRealMethod();
+        }).when(hashingEncoder).encode("Racing1!");
+        String ndjson = String.join("\n",
+                row("alice", "alice@example.com"),
+                "{\"username\":\"Carol\",\"email\":\"carol@example.com\",\"password\":\"Racing1!\"}",
+                row("bob", "bob@example.com"));
+
+        UserImportReport report = importService.importUsers(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(2, report.imported());
+        assertEquals(Map.of(2L, "Username or email already exists"), byLine(report.errors()));
+        assertTrue(userRepository.findByUsername("alice").isPresent());
+        assertTrue(userRepository.findByUsername("bob").isPresent());
+        assertEquals("carol-signup@example.com", userRepository.findByUsername("carol").orElseThrow().getEmail());
+    }
+
+    private static String row(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Long, String> byLine(List<RowError> errors) {
+        return errors.stream().collect(Collectors.toMap(RowError::line, RowError::message));
+    }
+}
@@ -0,0 +1,110 @@
+package com.standard.commerce_maven.user.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.CommerceMavenApplication;
+import com.standard.commerce_maven.common.JsonEnvelope;
+import com.standard.commerce_maven.common.ResponseDto;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.dtos.UserVersion;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * Writes the GET /api/users/{id} response body for one user to a buffer,
+ * once serialized by the application's ObjectMapper (the uncached path) and
+ * once as cached bytes in the pre-serialized envelope. The user is already
+ * read in both, so only the serialization cost is compared.
+ *
+ * Run with {@code -prof gc} to compare bytes allocated per operation:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.user.service.UserJsonCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonCacheBenchmark {
+
+    private static final String MESSAGE = "User retrieved successfully";
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private UserJsonCache userJsonCache;
+    private JsonEnvelope envelope;
+    private UserSummary user;
+    private UserVersion version;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(CommerceMavenApplication.class)
+                // Command-line arguments, so they override application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jsoncache",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--application.security.password.target-latency=PT0S",
+                        "--logging.level.root=WARN");
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+        this.userJsonCache = this.context.getBean(UserJsonCache.class);
+        this.envelope = JsonEnvelope.of(this.objectMapper, 200, MESSAGE);
+        User saved = this.context.getBean(UserRepository.class).save(new User("benchmark-user",
+                "benchmark-user@example.com", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1eZHsG2eq6F6Yw5qC0p6R2a",
+                UserType.USER));
+        this.user = UserSummary.from(saved);
+        this.version = UserVersion.of(this.user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int jacksonSerialization() throws IOException {
+        this.out.reset();
+        this.objectMapper.writeValue(this.out, new ResponseDto<>(this.user, 200, null, MESSAGE));
+        return this.out.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        this.out.reset();
+        this.envelope.wrap(this.userJsonCache.get(this.version, () -> this.user).json()).writeTo(this.out);
+        return this.out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserJsonCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
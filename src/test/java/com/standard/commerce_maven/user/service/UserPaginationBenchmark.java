@@ -0,0 +1,155 @@
+package com.standard.commerce_maven.user.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares reading page N of the users table by OFFSET (plus the count query
+ * a {@code Page} needs) with a keyset seek from the previous page's last
+ * (username, id), on an in-memory H2 table seeded with 200,000 rows.
+ * The SQL has the shape Hibernate generates for {@code findAll(Pageable)}
+ * and {@code findAllBy(ScrollPosition, Sort, Limit)}.
+ *
+ * Offset latency grows with the page number; keyset stays flat.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.user.service.UserPaginationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPaginationBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "1", "100", "1000", "10000" })
+    public int page;
+
+    private Connection connection;
+    private PreparedStatement offsetQuery;
+    private PreparedStatement countQuery;
+    private PreparedStatement keysetQuery;
+    private String afterUsername;
+    private UUID afterId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:pagination-" + this.page);
+        try (Statement ddl = this.connection.createStatement()) {
+            ddl.execute("create table users (id uuid primary key, username varchar(255) not null unique, "
+                    + "email varchar(255) not null unique, created_at timestamp not null)");
+        }
+        this.connection.setAutoCommit(false);
+        try (PreparedStatement insert = this.connection
+                .prepareStatement("insert into users (id, username, email, created_at) values (?, ?, ?, current_timestamp)")) {
+            for (int i = 0; i < ROWS; i++) {
+                UUID id = UUID.randomUUID();
+                insert.setObject(1, id);
+                insert.setString(2, "user-" + id);
+                insert.setString(3, id + "@example.com");
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        this.connection.commit();
+
+        this.offsetQuery = this.connection.prepareStatement(
+                "select id, username, email, created_at from users order by username, id offset ? rows fetch first ? rows only");
+        this.countQuery = this.connection.prepareStatement("select count(*) from users");
+        this.keysetQuery = this.connection.prepareStatement(
+                "select id, username, email, created_at from users where username > ? or (username = ? and id > ?) "
+                        + "order by username, id fetch first ? rows only");
+
+        // The cursor a client would hold when asking for this page
+        if (this.page > 1) {
+            try (PreparedStatement last = this.connection.prepareStatement(
+                    "select username, id from users order by username, id offset ? rows fetch first 1 rows only")) {
+                last.setInt(1, (this.page - 1) * PAGE_SIZE - 1);
+                try (ResultSet rs = last.executeQuery()) {
+                    rs.next();
+                    this.afterUsername = rs.getString(1);
+                    this.afterId = rs.getObject(2, UUID.class);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        this.connection.close();
+    }
+
+    @Benchmark
+    public int offsetPage() throws SQLException {
+        this.offsetQuery.setInt(1, (this.page - 1) * PAGE_SIZE);
+        this.offsetQuery.setInt(2, PAGE_SIZE);
+        int rows = drain(this.offsetQuery);
+        try (ResultSet rs = this.countQuery.executeQuery()) {
+            rs.next();
+            return rows + (int) rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public int keysetPage() throws SQLException {
+        if (this.afterUsername == null) {
+            this.offsetQuery.setInt(1, 0);
+            this.offsetQuery.setInt(2, PAGE_SIZE);
+            return drain(this.offsetQuery);
+        }
+        this.keysetQuery.setString(1, this.afterUsername);
+        this.keysetQuery.setString(2, this.afterUsername);
+        this.keysetQuery.setObject(3, this.afterId);
+        this.keysetQuery.setInt(4, PAGE_SIZE);
+        return drain(this.keysetQuery);
+    }
+
+    private static int drain(PreparedStatement query) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+                rs.getString(2);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserPaginationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
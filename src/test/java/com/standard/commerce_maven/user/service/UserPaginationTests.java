@@ -0,0 +1,136 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.standard.commerce_maven.common.CountMode;
+
+import com.standard.commerce_maven.common.PaginationDto;
+import com.standard.commerce_maven.user.dtos.UserSummary;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userpages",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class UserPaginationTests {
+
+    private static final int USERS = 57;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCountEstimator countEstimator;
+
+    @BeforeEach
+    void seed() {
+        userRepository.deleteAll();
+        // Names are shuffled so username order differs from insertion and id order
+        List<Integer> numbers = new ArrayList<>(IntStream.range(0, USERS).boxed().toList());
+        Collections.shuffle(numbers);
+        userRepository.saveAll(numbers.stream()
+                .map(i -> new User("user" + String.format("%03d", i), "user" + i + "@example.com", "x", UserType.USER))
+                .toList());
+        countEstimator.refresh();
+    }
+
+    @Test
+    void reportsTotalsOnlyAsAskedFor() {
+        PageRequest second = PageRequest.of(1, 10, Sort.by("username"));
+
+        PaginationDto<UserSummary> none = userService.getUsersPage(second, CountMode.NONE);
+        assertEquals(10, none.getData().size());
+        assertTrue(none.isHasNext());
+        assertNull(none.getTotalElements());
+
+        userService.createUser(new User("late", "late@example.com", "secret", UserType.USER));
+        PaginationDto<UserSummary> estimate = userService.getUsersPage(second, CountMode.ESTIMATE);
+        assertEquals(USERS + 1, estimate.getTotalElements());
+        assertEquals(6, estimate.getTotalPages());
+        assertTrue(estimate.getTotalEstimated());
+
+        PaginationDto<UserSummary> exact = userService.getUsersPage(second, CountMode.EXACT);
+        assertEquals(USERS + 1, exact.getTotalElements());
+        assertNull(exact.getTotalEstimated());
+    }
+
+    @Test
+    void walksForwardAndBackWithoutGapsOrRepeats() {
+        List<User> expected = new ArrayList<>(userRepository.findAll());
+        expected.sort(Comparator.comparing(User::getUsername));
+
+        List<UUID> forward = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        PaginationDto<UserSummary> page = userService.getUsersByCursor(null, Sort.Order.asc("username"), 10);
+        assertNull(page.getPrevCursor());
+        while (true) {
+            page.getData().forEach(user -> forward.add(user.id()));
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            cursors.add(page.getNextCursor());
+            page = userService.getUsersByCursor(page.getNextCursor(), null, 10);
+        }
+        assertEquals(expected.stream().map(User::getId).toList(), forward);
+        assertEquals(7, page.getData().size());
+
+        List<UUID> backward = new ArrayList<>();
+        while (page.getPrevCursor() != null) {
+            page = userService.getUsersByCursor(page.getPrevCursor(), null, 10);
+            backward.addAll(0, page.getData().stream().map(UserSummary::id).toList());
+            assertNotNull(page.getNextCursor());
+        }
+        assertEquals(forward.subList(0, 50), backward);
+    }
+
+    @Test
+    void breaksTiesOnIdInTheSortDirection() {
+        List<UUID> expected = userRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .stream().map(User::getId).toList();
+
+        List<UUID> seen = new ArrayList<>();
+        PaginationDto<UserSummary> page = userService.getUsersByCursor(null, Sort.Order.desc("createdAt"), 8);
+        seen.addAll(page.getData().stream().map(UserSummary::id).toList());
+        while (page.getNextCursor() != null) {
+            page = userService.getUsersByCursor(page.getNextCursor(), null, 8);
+            seen.addAll(page.getData().stream().map(UserSummary::id).toList());
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void rejectsTamperedCursorsAndUnindexedSorts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersByCursor("not-a-cursor", null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersByCursor(null, Sort.Order.asc("password"), 10));
+    }
+}
@@ -0,0 +1,132 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.standard.commerce_maven.auth.AuthenticatedUser;
+import com.standard.commerce_maven.auth.JwtAuthenticationFilter;
+import com.standard.commerce_maven.auth.service.JwtService;
+import com.standard.commerce_maven.user.dtos.UserPatch;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * User changes reach the next authenticated request through the principal
+ * cache, including when a concurrent request re-caches the old row before
+ * the change commits.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:principalcache",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class UserPrincipalCacheTests {
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID id;
+
+    @BeforeEach
+    void createUser() {
+        id = userService.createUser(new User("principal-" + UUID.randomUUID(),
+                UUID.randomUUID() + "@example.com", "secret", UserType.USER)).getId();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void changesApplyToTheNextRequest() throws Exception {
+        String token = jwtService.generateToken(userRepository.findById(id).orElseThrow());
+        assertEquals(UserType.USER, principal(token).getUserType()); // Now cached
+
+        // Not revoking: the cached snapshot is replaced, the token stays valid
+        userService.verifyEmail(id);
+        assertTrue(principalCache.get(id).emailVerified());
+        assertNotNull(authenticate(token));
+
+        User admin = userService.patchUser(id, new UserPatch(null, null, null, UserType.ADMIN)).orElseThrow();
+        assertNull(authenticate(token));
+        String adminToken = jwtService.generateToken(admin);
+        assertEquals(UserType.ADMIN, principal(adminToken).getUserType());
+
+        userService.updatePassword(id, "secret2");
+        assertNull(authenticate(adminToken));
+
+        userService.deleteUser(id);
+        assertNull(principalCache.get(id));
+    }
+
+    @Test
+    void reloadsARowCachedWhileTheChangeWasUncommitted() {
+        assertEquals(UserType.USER, principalCache.get(id).userType());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findById(id).orElseThrow();
+            user.setUserType(UserType.ADMIN);
+            userRepository.saveAndFlush(user);
+            principalCache.invalidate(id);
+            // A concurrent request misses and caches the committed (old) row
+            UserType seen = CompletableFuture.supplyAsync(() -> principalCache.get(id).userType()).join();
+            assertEquals(UserType.USER, seen);
+        });
+
+        // Dropped again after commit
+        assertEquals(UserType.ADMIN, principalCache.get(id).userType());
+    }
+
+    private AuthenticatedUser principal(String token) throws Exception {
+        return (AuthenticatedUser) authenticate(token).getPrincipal();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
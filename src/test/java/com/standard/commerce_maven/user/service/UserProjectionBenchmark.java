@@ -0,0 +1,115 @@
+package com.standard.commerce_maven.user.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.standard.commerce_maven.CommerceMavenApplication;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+/**
+ * Reads and serializes a 50-row user page and a single user, once as full
+ * entities (the old controller path) and once as {@code UserSummary}
+ * projections, against the application context on in-memory H2.
+ *
+ * Run with {@code -prof gc} to compare bytes allocated per operation:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.user.service.UserProjectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    private static final PageRequest PAGE = PageRequest.of(3, 50, Sort.by("username"));
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private ObjectMapper objectMapper;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(CommerceMavenApplication.class)
+                // Command-line arguments, so they override application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:projection",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--application.security.password.target-latency=PT0S",
+                        "--logging.level.root=WARN");
+        this.userRepository = this.context.getBean(UserRepository.class);
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+        List<User> users = IntStream.range(0, 1000)
+                .mapToObj(i -> {
+                    User user = new User("user" + i, "user" + i + "@example.com",
+                            "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1eZHsG2eq6F6Yw5qC0p6R2a", UserType.USER);
+                    user.setTwoFactorSecret("JBSWY3DPEHPK3PXP");
+                    return user;
+                })
+                .toList();
+        this.userId = this.userRepository.saveAll(users).get(500).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.userRepository.findAll(PAGE).getContent());
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.userRepository.findSliceBy(PAGE).getContent());
+    }
+
+    @Benchmark
+    public byte[] entityById() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.userRepository.findById(this.userId).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] summaryById() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.userRepository.findSummaryById(this.userId).orElseThrow());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserProjectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
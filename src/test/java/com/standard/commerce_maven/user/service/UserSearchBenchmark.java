@@ -0,0 +1,129 @@
+package com.standard.commerce_maven.user.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Searches 200,000 generated users through {@link UserSearchIndex} and, for
+ * comparison, by scoring every user (trigrams precomputed): what filtering a
+ * full listing on the client amounts to, at best. Queries cover a short prefix, a longer prefix, and a
+ * misspelled name that only the trigram path finds.
+ *
+ * The index scores at most max-candidates users per query; the scan scores
+ * all of them, so its cost grows with the number of users.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.standard.commerce_maven.user.service.UserSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserSearchBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int LIMIT = 20;
+    private static final double THRESHOLD = 0.3;
+    private static final String[] SYLLABLES = { "al", "ber", "chri", "da", "el", "fra", "ga", "han", "is", "jo",
+            "ka", "li", "ma", "ni", "ol", "pe", "ri", "sa", "te", "vi", "wil", "xa", "yo", "ze" };
+
+    @Param({ "ma", "marisa", "jonathon" })
+    public String query;
+
+    private UserSearchIndex index;
+    private List<Candidate> users;
+
+    private record Candidate(String username, String email, Set<String> usernameTrigrams, Set<String> emailTrigrams) {
+        Candidate(String username, String email) {
+            this(username, email, UserSearchIndex.trigrams(username), UserSearchIndex.trigrams(email));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        this.index = new UserSearchIndex(THRESHOLD, 2000);
+        this.users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String username = name(random) + (random.nextBoolean() ? "" : "." + name(random)) + i;
+            String email = username + "@" + name(random) + ".example.com";
+            this.index.put(UUID.randomUUID(), username, email);
+            this.users.add(new Candidate(username, email));
+        }
+        // The misspelled query's target
+        this.index.put(UUID.randomUUID(), "jonathan", "jonathan@example.com");
+        this.users.add(new Candidate("jonathan", "jonathan@example.com"));
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 2 + random.nextInt(2); i > 0; i--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<UserSearchIndex.Hit> index() {
+        return this.index.search(this.query, LIMIT);
+    }
+
+    @Benchmark
+    public List<double[]> scan() {
+        Set<String> queryTrigrams = UserSearchIndex.trigrams(this.query);
+        List<double[]> hits = new ArrayList<>();
+        for (int i = 0; i < this.users.size(); i++) {
+            Candidate user = this.users.get(i);
+            double score = Math.max(score(user.username, user.usernameTrigrams, queryTrigrams),
+                    score(user.email, user.emailTrigrams, queryTrigrams));
+            if (score >= 0.5 * THRESHOLD) {
+                hits.add(new double[] { i, score });
+            }
+        }
+        hits.sort(Comparator.comparingDouble((double[] hit) -> hit[1]).reversed());
+        return hits.subList(0, Math.min(LIMIT, hits.size()));
+    }
+
+    private double score(String value, Set<String> valueTrigrams, Set<String> queryTrigrams) {
+        if (value.startsWith(this.query)) {
+            return 0.5 + 0.5 * this.query.length() / value.length();
+        }
+        int shared = 0;
+        for (String trigram : queryTrigrams) {
+            if (valueTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return 0.5 * UserSearchIndex.similarity(shared, valueTrigrams.size(), queryTrigrams.size());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
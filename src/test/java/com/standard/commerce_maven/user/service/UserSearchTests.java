@@ -0,0 +1,89 @@
+package com.standard.commerce_maven.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.standard.commerce_maven.user.dtos.UserSearchHit;
+import com.standard.commerce_maven.user.entity.User;
+import com.standard.commerce_maven.user.enums.UserType;
+import com.standard.commerce_maven.user.repository.UserRepository;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usersearch",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "application.security.password.target-latency=PT0S"
+})
+class UserSearchTests {
+
+    @Autowired
+    private UserSearchService searchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void seed() {
+        userRepository.deleteAll();
+        for (String name : List.of("alice", "alicia", "alison", "malice", "bob", "robert")) {
+            userRepository.save(new User(name, name + "@example.com", "x", UserType.USER));
+        }
+        searchService.rebuild();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenFuzzyMatches() {
+        List<String> names = usernames(searchService.search("ALICE", 10));
+        assertEquals("alice", names.get(0));
+        // malice only resembles the query, so it ranks below every prefix match
+        assertTrue(names.contains("malice"));
+        assertTrue(names.indexOf("malice") > names.indexOf("alice"));
+
+        assertEquals(List.of("alice", "alicia"), usernames(searchService.search("alic", 2)));
+        // Shorter values are covered more by the prefix; ties go by username
+        assertEquals(List.of("alice", "alicia", "alison"), usernames(searchService.search("ali", 10)).subList(0, 3));
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals("robert", usernames(searchService.search("robbert", 5)).get(0));
+        assertEquals("alison", usernames(searchService.search("allison", 5)).get(0));
+    }
+
+    @Test
+    void followsCreatesRenamesAndDeletes() {
+        searchService.search("bob", 1); // Builds the index
+        User zoe = userService.createUser(new User("zoe", "zoe@example.com", "Secret1!", UserType.USER));
+        assertEquals(List.of("zoe"), usernames(searchService.search("zo", 5)));
+
+        User renamed = new User("zoey", "zoey@example.com", null, UserType.USER);
+        userService.updateUser(zoe.getId(), renamed);
+        assertEquals(List.of("zoey"), usernames(searchService.search("zoey@", 5)));
+
+        userService.deleteUser(zoe.getId());
+        assertTrue(searchService.search("zoey", 5).isEmpty());
+    }
+
+    @Test
+    void rejectsBlankQueries() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("  ", 5));
+    }
+
+    private static List<String> usernames(List<UserSearchHit> hits) {
+        return hits.stream().map(hit -> hit.user().username()).toList();
+    }
+}